@@ -0,0 +1,25 @@
+#!/bin/sh
+# Unpacks the Spring Boot jar into <out>/application.jar + <out>/lib/*.jar.
+# Class data sharing only archives classes loaded from plain jars on the class
+# path, not from the nested jars of the fat jar, so the CDS training run and the
+# runtime both start from this layout.
+#
+# Usage: scripts/extract-app.sh target/user-api-0.0.1-SNAPSHOT.jar target/app
+set -e
+
+jar_file=$(cd "$(dirname "$1")" && pwd)/$(basename "$1")
+out=$2
+work=$(mktemp -d)
+trap 'rm -rf "$work"' EXIT
+
+(cd "$work" && jar xf "$jar_file")
+rm -rf "$out"
+mkdir -p "$out/lib"
+cp "$work"/BOOT-INF/lib/*.jar "$out/lib/"
+
+main_class=$(sed -n 's/^Start-Class: *//p' "$work/META-INF/MANIFEST.MF" | tr -d '\r')
+{
+    echo "Main-Class: $main_class"
+    (cd "$out" && ls lib/*.jar) | sed '1s/^/Class-Path: /; 2,$s/^/  /'
+} > "$work/manifest.txt"
+jar --create --file "$out/application.jar" --manifest "$work/manifest.txt" -C "$work/BOOT-INF/classes" .
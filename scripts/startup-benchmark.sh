@@ -0,0 +1,76 @@
+#!/bin/sh
+# Measures time-to-ready and resident memory for each startup mode.
+#
+# Build first with the AOT profile (the AOT classes are ignored unless
+# -Dspring.aot.enabled=true is passed, so one jar serves every mode):
+#   mvn -B -Pfast-start clean package -DskipTests
+#   scripts/startup-benchmark.sh [runs]
+#
+# "ready" is the first 200 from /actuator/health; "first request" is the first
+# 200 from GET /api/users; RSS is VmRSS right after the first request.
+set -e
+
+runs=${1:-5}
+port=${PORT:-18082}
+jar=$(ls target/user-api-*.jar | grep -v '\.original$' | head -1)
+app=target/fast-start
+work=$(mktemp -d)
+# The fast-start profile refuses to start without an explicit node id
+export NODE_ID=${NODE_ID:-0}
+trap 'rm -rf "$work"' EXIT
+
+scripts/extract-app.sh "$jar" "$app"
+
+# Training run: start until the context is refreshed, then dump the loaded classes
+java -XX:ArchiveClassesAtExit="$app/application.jsa" -Dspring.context.exit=onRefresh \
+    -Dspring.aot.enabled=true -Dspring.profiles.active=fast-start \
+    -Duser.email-index.path="$work/training/email-index.bin" -Duser.journal.dir="$work/training/journal" \
+    -jar "$app/application.jar" > "$work/training.log" 2>&1
+
+now_ms() {
+    echo $(($(date +%s%N) / 1000000))
+}
+
+wait_for() {
+    until curl -sf -o /dev/null "$1"; do
+        sleep 0.01
+    done
+}
+
+measure() {
+    mode=$1
+    shift
+    i=1
+    while [ "$i" -le "$runs" ]; do
+        rm -rf "$work/data"
+        start=$(now_ms)
+        java "$@" --server.port="$port" --user.email-index.path="$work/data/email-index.bin" \
+            --user.journal.dir="$work/data/journal" > "$work/$mode.log" 2>&1 &
+        pid=$!
+        wait_for "http://localhost:$port/actuator/health"
+        ready=$(now_ms)
+        wait_for "http://localhost:$port/api/users"
+        first=$(now_ms)
+        rss=$(awk '/VmRSS/ { print $2 }' "/proc/$pid/status")
+        kill "$pid"
+        wait "$pid" 2> /dev/null || true
+        echo "$mode $((ready - start)) $((first - start)) $((rss / 1024))"
+        i=$((i + 1))
+    done
+}
+
+{
+    measure jar -jar "$jar"
+    measure lazy -Dspring.profiles.active=fast-start -jar "$jar"
+    measure aot -Dspring.aot.enabled=true -Dspring.profiles.active=fast-start -jar "$app/application.jar"
+    measure aot+cds -XX:SharedArchiveFile="$app/application.jsa" -Xlog:cds=off -Xlog:class+path=off \
+        -Dspring.aot.enabled=true -Dspring.profiles.active=fast-start -jar "$app/application.jar"
+} | awk '
+    { ready[$1] += $2; first[$1] += $3; rss[$1] += $4; n[$1]++; if (!($1 in seen)) { seen[$1] = 1; order[++m] = $1 } }
+    END {
+        printf "%-8s %10s %14s %8s\n", "mode", "ready ms", "1st request ms", "RSS MB"
+        for (i = 1; i <= m; i++) {
+            k = order[i]
+            printf "%-8s %10d %14d %8d\n", k, ready[k] / n[k], first[k] / n[k], rss[k] / n[k]
+        }
+    }'
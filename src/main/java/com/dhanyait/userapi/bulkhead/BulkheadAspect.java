@@ -0,0 +1,135 @@
+package com.dhanyait.userapi.bulkhead;
+
+import com.dhanyait.userapi.deadline.RequestDeadline;
+import com.dhanyait.userapi.exception.BulkheadFullException;
+import com.dhanyait.userapi.exception.DeadlineExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admits {@link Bulkhead @Bulkhead} methods through their compartment's semaphore and
+ * marks the thread so {@link BulkheadRoutingDataSource} hands out that compartment's
+ * connections. A full compartment rejects the call with {@link BulkheadFullException}
+ * instead of letting it queue for a connection. A call never waits for a permit past
+ * its {@link RequestDeadline}, and one whose deadline has passed is not admitted.
+ * <p>
+ * Ordered ahead of the transaction interceptor, so the transaction's connection is
+ * already taken from the right pool. Meters per compartment, tagged {@code bulkhead}:
+ * {@code user.bulkhead.active}, {@code user.bulkhead.saturation} (active / limit) and
+ * {@code user.bulkhead.rejected}; calls refused for their deadline count in
+ * {@code user.deadline.abandoned} with {@code stage=bulkhead}.
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE + 200)
+public class BulkheadAspect {
+
+    private static final ThreadLocal<BulkheadType> CURRENT = new ThreadLocal<>();
+
+    private final Map<BulkheadType, Compartment> compartments = new EnumMap<>(BulkheadType.class);
+    private final Counter abandoned;
+
+    public BulkheadAspect(BulkheadProperties properties, MeterRegistry meterRegistry) {
+        for (BulkheadType type : BulkheadType.values()) {
+            BulkheadProperties.Compartment config = properties.compartment(type);
+            Compartment compartment = new Compartment(type, config.getMaxConcurrentCalls(),
+                    config.getMaxWait().toNanos(), meterRegistry);
+            compartments.put(type, compartment);
+        }
+        this.abandoned = RequestDeadline.abandoned(meterRegistry, "bulkhead");
+    }
+
+    /**
+     * Bulkhead the current thread is running in, or {@code null} outside any.
+     */
+    public static BulkheadType current() {
+        return CURRENT.get();
+    }
+
+    @Around("@annotation(bulkhead)")
+    public Object isolate(ProceedingJoinPoint joinPoint, Bulkhead bulkhead) throws Throwable {
+        if (CURRENT.get() != null) {
+            return joinPoint.proceed();
+        }
+        Compartment compartment = compartments.get(bulkhead.value());
+        RequestDeadline deadline = RequestDeadline.current();
+        if (!compartment.tryAcquire(deadline)) {
+            if (deadline != null && deadline.isExpired()) {
+                abandoned.increment();
+                throw new DeadlineExceededException("Request deadline passed waiting for the "
+                        + compartment.type.tagValue() + " bulkhead");
+            }
+            compartment.rejected.increment();
+            throw new BulkheadFullException("Too many concurrent " + compartment.type.tagValue()
+                    + " requests, try again shortly");
+        }
+        CURRENT.set(compartment.type);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            CURRENT.remove();
+            compartment.permits.release();
+        }
+    }
+
+    private static final class Compartment {
+        private final BulkheadType type;
+        private final int limit;
+        private final long maxWaitNanos;
+        private final Semaphore permits;
+        private final Counter rejected;
+
+        private Compartment(BulkheadType type, int limit, long maxWaitNanos, MeterRegistry meterRegistry) {
+            this.type = type;
+            this.limit = limit;
+            this.maxWaitNanos = maxWaitNanos;
+            this.permits = new Semaphore(limit);
+            this.rejected = Counter.builder("user.bulkhead.rejected")
+                    .description("Calls rejected because the bulkhead was full")
+                    .tag("bulkhead", type.tagValue())
+                    .register(meterRegistry);
+            Gauge.builder("user.bulkhead.active", this, Compartment::active)
+                    .description("Calls currently inside the bulkhead")
+                    .tag("bulkhead", type.tagValue())
+                    .register(meterRegistry);
+            Gauge.builder("user.bulkhead.saturation", this, compartment -> (double) compartment.active() / compartment.limit)
+                    .description("Share of the bulkhead's concurrency limit in use")
+                    .tag("bulkhead", type.tagValue())
+                    .register(meterRegistry);
+        }
+
+        private int active() {
+            return limit - permits.availablePermits();
+        }
+
+        private boolean tryAcquire(RequestDeadline deadline) {
+            long waitNanos = maxWaitNanos;
+            if (deadline != null) {
+                long remaining = deadline.remainingNanos();
+                if (remaining <= 0) {
+                    return false;
+                }
+                waitNanos = Math.min(waitNanos, remaining);
+            }
+            if (waitNanos == 0) {
+                return permits.tryAcquire();
+            }
+            try {
+                return permits.tryAcquire(waitNanos, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.dhanyait.userapi.bulkhead;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Replaces the single auto-configured pool with one Hikari pool per
+ * {@link BulkheadType}, all pointing at {@code spring.datasource.url}. Pool sizes
+ * come from {@code user.bulkhead.compartments.*}; {@code spring.datasource.hikari.*}
+ * no longer applies. Each pool reports {@code hikaricp.*} meters under its pool name.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "user.bulkhead.enabled", havingValue = "true")
+@EnableConfigurationProperties(BulkheadProperties.class)
+public class BulkheadConfiguration {
+
+    @Bean
+    BulkheadRoutingDataSource dataSource(DataSourceProperties dataSourceProperties, BulkheadProperties properties,
+                                         MeterRegistry meterRegistry) {
+        Map<BulkheadType, HikariDataSource> pools = new EnumMap<>(BulkheadType.class);
+        for (BulkheadType type : BulkheadType.values()) {
+            BulkheadProperties.Compartment compartment = properties.compartment(type);
+            HikariDataSource pool = dataSourceProperties.initializeDataSourceBuilder()
+                    .type(HikariDataSource.class)
+                    .build();
+            pool.setPoolName("user-api-" + type.tagValue());
+            pool.setMaximumPoolSize(compartment.getPoolSize());
+            pool.setConnectionTimeout(compartment.getConnectionTimeout().toMillis());
+            pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            pools.put(type, pool);
+        }
+        return new BulkheadRoutingDataSource(pools);
+    }
+
+    @Bean
+    BulkheadAspect bulkheadAspect(BulkheadProperties properties, MeterRegistry meterRegistry) {
+        return new BulkheadAspect(properties, meterRegistry);
+    }
+}
@@ -0,0 +1,86 @@
+package com.dhanyait.userapi.bulkhead;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * {@code user.bulkhead.*}: one compartment per {@link BulkheadType}, e.g.
+ * {@code user.bulkhead.compartments.point-read.pool-size=10}.
+ */
+@ConfigurationProperties("user.bulkhead")
+public class BulkheadProperties {
+
+    private boolean enabled;
+
+    private Map<BulkheadType, Compartment> compartments = new EnumMap<>(BulkheadType.class);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Map<BulkheadType, Compartment> getCompartments() {
+        return compartments;
+    }
+
+    public void setCompartments(Map<BulkheadType, Compartment> compartments) {
+        this.compartments = compartments;
+    }
+
+    public Compartment compartment(BulkheadType type) {
+        return compartments.getOrDefault(type, new Compartment());
+    }
+
+    public static class Compartment {
+
+        /** Connections in this compartment's pool. */
+        private int poolSize = 5;
+
+        /** Calls allowed in at once; defaults to the pool size so callers never queue in Hikari. */
+        private Integer maxConcurrentCalls;
+
+        /** How long a call may wait for a free slot before it is rejected; zero fails fast. */
+        private Duration maxWait = Duration.ZERO;
+
+        /** Hikari connection timeout for this pool. */
+        private Duration connectionTimeout = Duration.ofSeconds(5);
+
+        public int getPoolSize() {
+            return poolSize;
+        }
+
+        public void setPoolSize(int poolSize) {
+            this.poolSize = poolSize;
+        }
+
+        public int getMaxConcurrentCalls() {
+            return maxConcurrentCalls != null ? maxConcurrentCalls : poolSize;
+        }
+
+        public void setMaxConcurrentCalls(Integer maxConcurrentCalls) {
+            this.maxConcurrentCalls = maxConcurrentCalls;
+        }
+
+        public Duration getMaxWait() {
+            return maxWait;
+        }
+
+        public void setMaxWait(Duration maxWait) {
+            this.maxWait = maxWait;
+        }
+
+        public Duration getConnectionTimeout() {
+            return connectionTimeout;
+        }
+
+        public void setConnectionTimeout(Duration connectionTimeout) {
+            this.connectionTimeout = connectionTimeout;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.dhanyait.userapi.bulkhead;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Hands out connections from the pool of the bulkhead the calling thread is in.
+ * Work outside any bulkhead (startup, health checks) uses the point-read pool.
+ */
+public class BulkheadRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    private final Map<BulkheadType, HikariDataSource> pools;
+
+    public BulkheadRoutingDataSource(Map<BulkheadType, HikariDataSource> pools) {
+        this.pools = pools;
+        setTargetDataSources(new HashMap<>(pools));
+        setDefaultTargetDataSource(pools.get(BulkheadType.POINT_READ));
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return BulkheadAspect.current();
+    }
+
+    @Override
+    public void destroy() {
+        pools.values().forEach(HikariDataSource::close);
+    }
+}
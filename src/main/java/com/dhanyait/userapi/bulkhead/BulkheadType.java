@@ -0,0 +1,24 @@
+package com.dhanyait.userapi.bulkhead;
+
+import java.util.Locale;
+
+/**
+ * Workload classes that get their own connection pool and concurrency limit.
+ */
+public enum BulkheadType {
+    /** Single-user lookups on the latency-critical path. */
+    POINT_READ,
+    /** List and projection reads over the whole table. */
+    SCAN_READ,
+    /** Creates, updates and deletes. */
+    WRITE,
+    /** Imports and other admin jobs. */
+    BULK;
+
+    /**
+     * Name used in pool names and meter tags, e.g. {@code point-read}.
+     */
+    public String tagValue() {
+        return name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+}
@@ -0,0 +1,39 @@
+package com.dhanyait.userapi.config;
+
+import com.dhanyait.userapi.controller.UserController;
+import com.dhanyait.userapi.journal.UserJournal;
+import com.dhanyait.userapi.mapper.UserMapper;
+import com.dhanyait.userapi.repository.UserStore;
+import com.dhanyait.userapi.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Keeps the user read/write path eager when the {@code fast-start} profile turns on
+ * lazy initialization, so the first request does not pay for Hibernate bootstrap.
+ * Everything else (actuator endpoints, bulk import, JFR endpoint, ...) is created on
+ * first use.
+ */
+@Configuration(proxyBeanMethods = false)
+@Profile("fast-start")
+public class FastStartConfiguration {
+
+    private static final List<Class<?>> EAGER_TYPES = List.of(
+            DataSource.class, EntityManagerFactory.class, ObjectMapper.class,
+            UserStore.class, UserMapper.class, UserService.class, UserController.class,
+            // A lazy journal would be created, and recovered, by the first write's event
+            UserJournal.class);
+
+    @Bean
+    static LazyInitializationExcludeFilter userPathExcludeFilter() {
+        return (beanName, beanDefinition, beanType) ->
+                EAGER_TYPES.stream().anyMatch(type -> type.isAssignableFrom(beanType));
+    }
+}
@@ -1,16 +1,25 @@
 package com.dhanyait.userapi.controller;
 
+import com.dhanyait.userapi.dto.BulkUpsertRequest;
+import com.dhanyait.userapi.dto.UpsertStatus;
 import com.dhanyait.userapi.dto.UserDto;
+import com.dhanyait.userapi.dto.UserField;
+import com.dhanyait.userapi.dto.UserUpsertResponse;
+import com.dhanyait.userapi.hotkey.HotKeyTracker;
+import com.dhanyait.userapi.hotkey.HotUserCache;
+import com.dhanyait.userapi.service.UserBatchLoader;
 import com.dhanyait.userapi.service.UserService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/users")
@@ -20,16 +29,26 @@ public class UserController {
     private static final Logger logger = LoggerFactory.getLogger(UserController.class);
 
     private final UserService userService;
+    private final UserBatchLoader batchLoader;
+    private final HotKeyTracker hotKeys;
+    private final HotUserCache hotUserCache;
 
     @Autowired
-    public UserController(UserService userService) {
+    public UserController(UserService userService, ObjectProvider<UserBatchLoader> batchLoader,
+                          ObjectProvider<HotKeyTracker> hotKeys, ObjectProvider<HotUserCache> hotUserCache) {
         this.userService = userService;
+        this.batchLoader = batchLoader.getIfAvailable();
+        this.hotKeys = hotKeys.getIfAvailable();
+        this.hotUserCache = hotUserCache.getIfAvailable();
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<UserDto> getUser(@PathVariable Long id) {
         logger.info("GET request received for user with id: {}", id);
-        UserDto user = userService.getUserById(id);
+        if (hotKeys != null) {
+            hotKeys.recordId(id);
+        }
+        UserDto user = hotUserCache != null ? hotUserCache.get(id, this::loadUser) : loadUser(id);
         return ResponseEntity.ok(user);
     }
 
@@ -40,9 +59,24 @@ public class UserController {
         return ResponseEntity.ok(users);
     }
 
+    @GetMapping(value = "/{id}", params = "fields")
+    public ResponseEntity<Map<String, Object>> getUserFields(@PathVariable Long id, @RequestParam String fields) {
+        logger.info("GET request received for fields {} of user with id: {}", fields, id);
+        Map<String, Object> user = userService.getUserFieldsById(id, UserField.parse(fields));
+        return ResponseEntity.ok(user);
+    }
+
+    @GetMapping(params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getUsersFields(@RequestParam String fields) {
+        logger.info("GET request received for fields {} of all users", fields);
+        List<Map<String, Object>> users = userService.getAllUserFields(UserField.parse(fields));
+        return ResponseEntity.ok(users);
+    }
+
     @PostMapping
     public ResponseEntity<UserDto> createUser(@Valid @RequestBody UserDto userDto) {
         logger.info("POST request received to create user with email: {}", userDto.getEmail());
+        recordEmail(userDto.getEmail());
         UserDto createdUser = userService.createUser(userDto);
         return new ResponseEntity<>(createdUser, HttpStatus.CREATED);
     }
@@ -54,10 +88,37 @@ public class UserController {
         return ResponseEntity.ok(updatedUser);
     }
 
+    @PutMapping("/by-email/{email}")
+    public ResponseEntity<UserDto> upsertUserByEmail(@PathVariable String email, @Valid @RequestBody UserDto userDto) {
+        logger.info("PUT request received to upsert user with email: {}", email);
+        recordEmail(email);
+        UserUpsertResponse upserted = userService.upsertUserByEmail(email, userDto);
+        HttpStatus status = upserted.getStatus() == UpsertStatus.CREATED ? HttpStatus.CREATED : HttpStatus.OK;
+        return new ResponseEntity<>(upserted.getUser(), status);
+    }
+
+    @PutMapping("/by-email")
+    public ResponseEntity<List<UserUpsertResponse>> upsertUsersByEmail(@Valid @RequestBody BulkUpsertRequest request) {
+        logger.info("PUT request received to upsert {} users by email", request.getUsers().size());
+        request.getUsers().forEach(user -> recordEmail(user.getEmail()));
+        List<UserUpsertResponse> upserted = userService.upsertUsersByEmail(request.getUsers());
+        return ResponseEntity.ok(upserted);
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteUser(@PathVariable Long id) {
         logger.info("DELETE request received for user with id: {}", id);
         userService.deleteUser(id);
         return ResponseEntity.noContent().build();
     }
+
+    private UserDto loadUser(Long id) {
+        return batchLoader != null ? batchLoader.get(id) : userService.getUserById(id);
+    }
+
+    private void recordEmail(String email) {
+        if (hotKeys != null) {
+            hotKeys.recordEmail(email);
+        }
+    }
 }
\ No newline at end of file
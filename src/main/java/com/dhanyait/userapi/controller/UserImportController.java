@@ -0,0 +1,37 @@
+package com.dhanyait.userapi.controller;
+
+import com.dhanyait.userapi.dto.ImportReport;
+import com.dhanyait.userapi.service.UserImportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@RestController
+@RequestMapping("/api/admin/users")
+public class UserImportController {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserImportController.class);
+
+    private final UserImportService userImportService;
+
+    @Autowired
+    public UserImportController(UserImportService userImportService) {
+        this.userImportService = userImportService;
+    }
+
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<ImportReport> importUsers(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                                    @RequestParam(required = false) String importId,
+                                                    InputStream body) throws IOException {
+        logger.info("POST request received to import users as {}", contentType);
+        ImportReport report = userImportService.importUsers(body, UserImportService.Format.of(contentType), importId);
+        return ResponseEntity.ok(report);
+    }
+}
@@ -0,0 +1,53 @@
+package com.dhanyait.userapi.deadline;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.transaction.TransactionManager;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.time.Duration;
+
+/**
+ * Request deadlines: read from the request headers, checked before the bulkhead, the
+ * batch loader and the transaction take resources, and applied as JDBC query timeouts.
+ * Work dropped because its deadline passed is counted in {@code user.deadline.abandoned},
+ * tagged with the {@code stage} it got to.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "user.deadline.enabled", havingValue = "true")
+public class DeadlineConfiguration {
+
+    @Bean
+    public FilterRegistrationBean<RequestDeadlineFilter> requestDeadlineFilter(
+            @Qualifier("handlerExceptionResolver") HandlerExceptionResolver exceptionResolver,
+            MeterRegistry meterRegistry,
+            @Value("${user.deadline.default-timeout:0}") Duration defaultTimeout) {
+        FilterRegistrationBean<RequestDeadlineFilter> registration = new FilterRegistrationBean<>(
+                new RequestDeadlineFilter(exceptionResolver, meterRegistry, defaultTimeout));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    @Bean
+    public DeadlineTransactionManager transactionManager(MeterRegistry meterRegistry,
+            ObjectProvider<TransactionManagerCustomizers> transactionManagerCustomizers) {
+        DeadlineTransactionManager transactionManager = new DeadlineTransactionManager(meterRegistry);
+        transactionManagerCustomizers.ifAvailable(customizers -> customizers.customize((TransactionManager) transactionManager));
+        return transactionManager;
+    }
+
+    @Bean
+    public static BeanPostProcessor deadlineDataSourcePostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new DeadlineDataSourcePostProcessor(meterRegistry);
+    }
+}
@@ -0,0 +1,39 @@
+package com.dhanyait.userapi.deadline;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps every {@code DataSource} bean in a datasource-proxy of its own that runs
+ * {@link DeadlineQueryListener}. Owning the proxy keeps the query timeouts in place
+ * whatever datasource-micrometer is configured to do ({@code jdbc.datasource-proxy.enabled},
+ * excluded bean names); when it does proxy the pools too, the two proxies simply nest.
+ * The listener is deliberately not a bean, or datasource-micrometer would register it
+ * on its proxy as well and every statement would be checked twice.
+ */
+class DeadlineDataSourcePostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private DeadlineQueryListener listener;
+
+    DeadlineDataSourcePostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof DataSource dataSource)) {
+            return bean;
+        }
+        if (listener == null) {
+            listener = new DeadlineQueryListener(meterRegistry.getObject());
+        }
+        return ProxyDataSourceBuilder.create(beanName, dataSource)
+                .listener(listener)
+                .build();
+    }
+}
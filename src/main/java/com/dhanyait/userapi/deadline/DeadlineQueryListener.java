@@ -0,0 +1,54 @@
+package com.dhanyait.userapi.deadline;
+
+import com.dhanyait.userapi.exception.DeadlineExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.List;
+
+/**
+ * Gives every JDBC statement of a request with a {@link RequestDeadline} a query
+ * timeout of the remaining budget, so the driver cancels it once nobody is waiting,
+ * and does not send statements at all once the deadline has passed. Registered on
+ * the proxy that {@link DeadlineDataSourcePostProcessor} wraps around the pools.
+ * <p>
+ * JDBC timeouts are whole seconds, so a statement may outlive its deadline by up to
+ * a second; the next statement of the same request is then refused.
+ */
+public class DeadlineQueryListener implements QueryExecutionListener {
+
+    private final Counter abandoned;
+
+    public DeadlineQueryListener(MeterRegistry meterRegistry) {
+        this.abandoned = RequestDeadline.abandoned(meterRegistry, "query");
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        RequestDeadline deadline = RequestDeadline.current();
+        if (deadline == null) {
+            return;
+        }
+        if (deadline.isExpired()) {
+            abandoned.increment();
+            throw new DeadlineExceededException("Request deadline passed before the query was sent");
+        }
+        try {
+            execInfo.getStatement().setQueryTimeout(deadline.remainingSeconds());
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not set query timeout", e);
+        }
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (execInfo.getThrowable() instanceof SQLTimeoutException && RequestDeadline.current() != null) {
+            abandoned.increment();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.dhanyait.userapi.deadline;
+
+import com.dhanyait.userapi.exception.DeadlineExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+/**
+ * {@link JpaTransactionManager} that refuses to begin a transaction for a request whose
+ * {@link RequestDeadline} has passed, before an {@code EntityManager} or connection is
+ * taken for it.
+ * <p>
+ * The remaining budget is deliberately not applied as the transaction timeout:
+ * Hibernate counts that down in whole seconds and fails every statement once less
+ * than one second is left, which would reject most short deadlines outright.
+ * {@link DeadlineQueryListener} applies it per statement instead.
+ */
+public class DeadlineTransactionManager extends JpaTransactionManager {
+
+    private final Counter abandoned;
+
+    public DeadlineTransactionManager(MeterRegistry meterRegistry) {
+        this.abandoned = RequestDeadline.abandoned(meterRegistry, "transaction");
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        RequestDeadline deadline = RequestDeadline.current();
+        if (deadline != null && deadline.isExpired()) {
+            abandoned.increment();
+            throw new DeadlineExceededException("Request deadline passed before the transaction began");
+        }
+        super.doBegin(transaction, definition);
+    }
+}
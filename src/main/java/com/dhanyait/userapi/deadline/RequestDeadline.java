@@ -0,0 +1,136 @@
+package com.dhanyait.userapi.deadline;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Point in time after which nobody is waiting for the current request's answer, held
+ * per thread for the duration of the request by {@link RequestDeadlineFilter}.
+ * <p>
+ * Expiry is tracked on {@link System#nanoTime()}, so wall-clock adjustments after
+ * the request arrived do not move it. Code that hands work to another thread carries
+ * the deadline across with {@link #open(RequestDeadline)}.
+ */
+public final class RequestDeadline {
+
+    /**
+     * Longest budget honoured; callers may send far larger ones (gRPC allows years),
+     * which would overflow {@link System#nanoTime()} arithmetic.
+     */
+    public static final Duration MAX_TIMEOUT = Duration.ofDays(1);
+
+    private static final ThreadLocal<RequestDeadline> CURRENT = new ThreadLocal<>();
+
+    private final long expiresAtNanos;
+
+    private RequestDeadline(long expiresAtNanos) {
+        this.expiresAtNanos = expiresAtNanos;
+    }
+
+    /**
+     * Deadline {@code timeout} from now, capped at {@link #MAX_TIMEOUT}; a negative
+     * timeout gives a deadline that has already passed.
+     */
+    public static RequestDeadline after(Duration timeout) {
+        Duration budget = timeout.isNegative() ? Duration.ZERO
+                : timeout.compareTo(MAX_TIMEOUT) > 0 ? MAX_TIMEOUT : timeout;
+        return new RequestDeadline(System.nanoTime() + budget.toNanos());
+    }
+
+    public static RequestDeadline atEpochMilli(long epochMilli) {
+        return after(Duration.ofMillis(Math.subtractExact(epochMilli, System.currentTimeMillis())));
+    }
+
+    /**
+     * The earlier of two deadlines; either may be {@code null}.
+     */
+    public static RequestDeadline earliest(RequestDeadline first, RequestDeadline second) {
+        if (first == null) {
+            return second;
+        }
+        if (second == null) {
+            return first;
+        }
+        return first.expiresAtNanos - second.expiresAtNanos <= 0 ? first : second;
+    }
+
+    /**
+     * The later of two deadlines; {@code null} means no deadline and wins.
+     */
+    public static RequestDeadline latest(RequestDeadline first, RequestDeadline second) {
+        if (first == null || second == null) {
+            return null;
+        }
+        return first.expiresAtNanos - second.expiresAtNanos >= 0 ? first : second;
+    }
+
+    /**
+     * Deadline of the request running on this thread, or {@code null} if it has none.
+     */
+    public static RequestDeadline current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Makes {@code deadline} current on this thread until the scope is closed, which
+     * restores whatever was current before.
+     */
+    public static Scope open(RequestDeadline deadline) {
+        RequestDeadline previous = CURRENT.get();
+        CURRENT.set(deadline);
+        return new Scope(previous);
+    }
+
+    /**
+     * Counter of work given up on at {@code stage} because its deadline had passed.
+     */
+    public static Counter abandoned(MeterRegistry meterRegistry, String stage) {
+        return Counter.builder("user.deadline.abandoned")
+                .description("Requests or queries dropped because their caller's deadline had passed")
+                .tag("stage", stage)
+                .register(meterRegistry);
+    }
+
+    public long remainingNanos() {
+        return expiresAtNanos - System.nanoTime();
+    }
+
+    public boolean isExpired() {
+        return remainingNanos() <= 0;
+    }
+
+    /**
+     * Remaining budget rounded up to whole seconds, as JDBC query timeouts take it;
+     * never 0, which JDBC reads as "no timeout".
+     */
+    public int remainingSeconds() {
+        long seconds = TimeUnit.NANOSECONDS.toSeconds(remainingNanos() + TimeUnit.SECONDS.toNanos(1) - 1);
+        return (int) Math.max(1, Math.min(Integer.MAX_VALUE, seconds));
+    }
+
+    @Override
+    public String toString() {
+        return "RequestDeadline[remaining=" + Duration.ofNanos(remainingNanos()) + "]";
+    }
+
+    public static final class Scope implements AutoCloseable {
+
+        private final RequestDeadline previous;
+
+        private Scope(RequestDeadline previous) {
+            this.previous = previous;
+        }
+
+        @Override
+        public void close() {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.dhanyait.userapi.deadline;
+
+import com.dhanyait.userapi.exception.DeadlineExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reads the caller's deadline and makes it the {@link RequestDeadline} of the request.
+ * <p>
+ * Two headers are understood; when both are sent the earlier deadline wins:
+ * <ul>
+ *   <li>{@code X-Request-Deadline}: absolute, as epoch milliseconds or an ISO-8601
+ *       instant, so it survives hops that each spend part of the budget;</li>
+ *   <li>{@code grpc-timeout}: relative, in gRPC's {@code <digits><unit>} form, e.g.
+ *       {@code 250m} (units {@code H M S m u n}).</li>
+ * </ul>
+ * Unparsable values are ignored, and budgets beyond {@link RequestDeadline#MAX_TIMEOUT}
+ * are capped to it. A request whose deadline has already passed is
+ * answered with 504 straight away; one that completes after its deadline is counted,
+ * since nobody read the answer.
+ */
+public class RequestDeadlineFilter extends OncePerRequestFilter {
+
+    public static final String DEADLINE_HEADER = "X-Request-Deadline";
+    public static final String GRPC_TIMEOUT_HEADER = "grpc-timeout";
+
+    private static final Logger logger = LoggerFactory.getLogger(RequestDeadlineFilter.class);
+    private static final Pattern GRPC_TIMEOUT = Pattern.compile("(\\d{1,8})([HMSmun])");
+
+    private final HandlerExceptionResolver exceptionResolver;
+    private final Duration defaultTimeout;
+    private final Counter expiredOnArrival;
+    private final Counter completedLate;
+
+    /**
+     * @param defaultTimeout budget for requests that send no deadline; zero for none
+     */
+    public RequestDeadlineFilter(HandlerExceptionResolver exceptionResolver, MeterRegistry meterRegistry,
+                                 Duration defaultTimeout) {
+        this.exceptionResolver = exceptionResolver;
+        this.defaultTimeout = defaultTimeout;
+        this.expiredOnArrival = RequestDeadline.abandoned(meterRegistry, "arrival");
+        this.completedLate = RequestDeadline.abandoned(meterRegistry, "completed-late");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestDeadline deadline = deadline(request);
+        if (deadline == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        if (deadline.isExpired()) {
+            expiredOnArrival.increment();
+            exceptionResolver.resolveException(request, response, null,
+                    new DeadlineExceededException("Request deadline passed before it was processed"));
+            return;
+        }
+        try (RequestDeadline.Scope scope = RequestDeadline.open(deadline)) {
+            chain.doFilter(request, response);
+        } finally {
+            if (deadline.isExpired() && response.getStatus() != HttpStatus.GATEWAY_TIMEOUT.value()) {
+                completedLate.increment();
+            }
+        }
+    }
+
+    private RequestDeadline deadline(HttpServletRequest request) {
+        RequestDeadline deadline = RequestDeadline.earliest(
+                parseDeadline(request.getHeader(DEADLINE_HEADER)),
+                parseGrpcTimeout(request.getHeader(GRPC_TIMEOUT_HEADER)));
+        if (deadline == null && !defaultTimeout.isZero()) {
+            return RequestDeadline.after(defaultTimeout);
+        }
+        return deadline;
+    }
+
+    static RequestDeadline parseDeadline(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String trimmed = value.trim();
+        try {
+            if (trimmed.chars().allMatch(Character::isDigit)) {
+                return RequestDeadline.atEpochMilli(Long.parseLong(trimmed));
+            }
+            return RequestDeadline.after(Duration.between(Instant.now(), Instant.parse(trimmed)));
+        } catch (NumberFormatException | DateTimeParseException | ArithmeticException e) {
+            logger.debug("Ignoring unparsable {} header: {}", DEADLINE_HEADER, value);
+            return null;
+        }
+    }
+
+    static RequestDeadline parseGrpcTimeout(String value) {
+        if (value == null) {
+            return null;
+        }
+        Matcher matcher = GRPC_TIMEOUT.matcher(value.trim());
+        if (!matcher.matches()) {
+            logger.debug("Ignoring unparsable {} header: {}", GRPC_TIMEOUT_HEADER, value);
+            return null;
+        }
+        ChronoUnit unit = switch (matcher.group(2).charAt(0)) {
+            case 'H' -> ChronoUnit.HOURS;
+            case 'M' -> ChronoUnit.MINUTES;
+            case 'S' -> ChronoUnit.SECONDS;
+            case 'm' -> ChronoUnit.MILLIS;
+            case 'u' -> ChronoUnit.MICROS;
+            default -> ChronoUnit.NANOS;
+        };
+        return RequestDeadline.after(Duration.of(Long.parseLong(matcher.group(1)), unit));
+    }
+}
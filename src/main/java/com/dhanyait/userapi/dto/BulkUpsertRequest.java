@@ -0,0 +1,30 @@
+package com.dhanyait.userapi.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class BulkUpsertRequest {
+
+    public static final int MAX_USERS = 1000;
+
+    @NotEmpty(message = "Users are required")
+    @Size(max = MAX_USERS, message = "At most " + MAX_USERS + " users per request")
+    private List<@Valid UserDto> users;
+
+    public BulkUpsertRequest() {}
+
+    public BulkUpsertRequest(List<UserDto> users) {
+        this.users = users;
+    }
+
+    public List<UserDto> getUsers() {
+        return users;
+    }
+
+    public void setUsers(List<UserDto> users) {
+        this.users = users;
+    }
+}
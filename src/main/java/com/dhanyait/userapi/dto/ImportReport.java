@@ -0,0 +1,63 @@
+package com.dhanyait.userapi.dto;
+
+public class ImportReport {
+
+    private final String importId;
+    private final long processedRows;
+    private final long importedRows;
+    private final long rejectedRows;
+    private final long committedRows;
+    private final String rejectFile;
+
+    public ImportReport(String importId, long processedRows, long importedRows, long rejectedRows,
+                        long committedRows, String rejectFile) {
+        this.importId = importId;
+        this.processedRows = processedRows;
+        this.importedRows = importedRows;
+        this.rejectedRows = rejectedRows;
+        this.committedRows = committedRows;
+        this.rejectFile = rejectFile;
+    }
+
+    public String getImportId() {
+        return importId;
+    }
+
+    /**
+     * Rows read from the upload in this run, excluding rows skipped on resume.
+     */
+    public long getProcessedRows() {
+        return processedRows;
+    }
+
+    public long getImportedRows() {
+        return importedRows;
+    }
+
+    public long getRejectedRows() {
+        return rejectedRows;
+    }
+
+    /**
+     * Rows of the upload covered by committed chunks; a resumed import skips this many rows.
+     */
+    public long getCommittedRows() {
+        return committedRows;
+    }
+
+    public String getRejectFile() {
+        return rejectFile;
+    }
+
+    @Override
+    public String toString() {
+        return "ImportReport{" +
+                "importId='" + importId + '\'' +
+                ", processedRows=" + processedRows +
+                ", importedRows=" + importedRows +
+                ", rejectedRows=" + rejectedRows +
+                ", committedRows=" + committedRows +
+                ", rejectFile='" + rejectFile + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,16 @@
+package com.dhanyait.userapi.dto;
+
+/**
+ * Outcome of an upsert by email.
+ */
+public enum UpsertStatus {
+
+    /** No user had the email; one was inserted. */
+    CREATED,
+
+    /** The user existed and its names changed; {@code updatedAt} was bumped. */
+    UPDATED,
+
+    /** The user existed with the same names; the row was not touched. */
+    UNCHANGED
+}
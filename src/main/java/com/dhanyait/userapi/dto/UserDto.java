@@ -1,5 +1,7 @@
 package com.dhanyait.userapi.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
@@ -7,8 +9,13 @@ import jakarta.validation.constraints.Size;
 import java.time.LocalDateTime;
 import java.util.Objects;
 
+@JsonPropertyOrder({"id", UserDto.ID_STR, "firstName", "lastName", "email", "createdAt", "updatedAt"})
+@JsonIgnoreProperties(value = UserDto.ID_STR, allowGetters = true)
 public class UserDto {
 
+    /** JSON property carrying the id as a string; see {@link #getIdStr()}. */
+    public static final String ID_STR = "idStr";
+
     private Long id;
 
     @NotBlank(message = "First name is required")
@@ -54,6 +61,15 @@ public class UserDto {
         this.id = id;
     }
 
+    /**
+     * The id as a decimal string. Snowflake ids exceed 2^53, beyond which a JavaScript
+     * {@code Number} (and any JSON parser that reads numbers as doubles) silently
+     * rounds them, so such clients must use this instead of {@code id}. Read-only.
+     */
+    public String getIdStr() {
+        return id == null ? null : id.toString();
+    }
+
     public String getFirstName() {
         return firstName;
     }
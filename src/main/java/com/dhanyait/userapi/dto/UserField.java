@@ -0,0 +1,59 @@
+package com.dhanyait.userapi.dto;
+
+import com.dhanyait.userapi.exception.InvalidRequestException;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * {@link UserDto} properties that can be requested with {@code ?fields=}.
+ * The property name doubles as the JPA attribute name of the same column.
+ */
+public enum UserField {
+    ID("id"),
+    FIRST_NAME("firstName"),
+    LAST_NAME("lastName"),
+    EMAIL("email"),
+    CREATED_AT("createdAt"),
+    UPDATED_AT("updatedAt");
+
+    private final String property;
+
+    UserField(String property) {
+        this.property = property;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    /**
+     * Parses a comma-separated field list. The result iterates in {@link UserDto}
+     * property order, whatever order the caller listed them in.
+     */
+    public static Set<UserField> parse(String fields) {
+        Set<UserField> result = EnumSet.noneOf(UserField.class);
+        Set<String> unknown = new TreeSet<>();
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            Arrays.stream(values())
+                    .filter(field -> field.property.equals(trimmed))
+                    .findFirst()
+                    .ifPresentOrElse(result::add, () -> unknown.add(trimmed));
+        }
+        if (!unknown.isEmpty()) {
+            throw new InvalidRequestException("Unknown fields " + unknown + "; allowed fields are "
+                    + Arrays.stream(values()).map(UserField::getProperty).collect(Collectors.joining(",")));
+        }
+        if (result.isEmpty()) {
+            throw new InvalidRequestException("At least one field must be requested");
+        }
+        return result;
+    }
+}
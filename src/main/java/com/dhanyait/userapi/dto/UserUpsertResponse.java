@@ -0,0 +1,20 @@
+package com.dhanyait.userapi.dto;
+
+public class UserUpsertResponse {
+
+    private final UpsertStatus status;
+    private final UserDto user;
+
+    public UserUpsertResponse(UpsertStatus status, UserDto user) {
+        this.status = status;
+        this.user = user;
+    }
+
+    public UpsertStatus getStatus() {
+        return status;
+    }
+
+    public UserDto getUser() {
+        return user;
+    }
+}
@@ -0,0 +1,122 @@
+package com.dhanyait.userapi.hotkey;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Streaming top-K over {@code long} keys: a Count-Min sketch estimates every key's
+ * frequency and a small map keeps the {@code capacity} keys with the highest estimates.
+ * <p>
+ * {@link #add} costs {@value #DEPTH} atomic increments plus a volatile read for keys
+ * below the current top-K threshold, which is nearly all of them. Keys already in the
+ * top-K update their estimate in a {@link ConcurrentHashMap}; only a key that displaces
+ * another takes the sketch's monitor. Estimates never undercount, and overcount by at
+ * most {@code total * e / width} with high probability.
+ * <p>
+ * {@link #decay} halves every counter, so counts describe an exponentially decayed
+ * window and keys that cool down fall out of the top-K.
+ */
+public class HeavyHitterSketch {
+
+    static final int DEPTH = 4;
+
+    private final int capacity;
+    private final int widthMask;
+    private final AtomicLongArray counters;
+    private final AtomicLong total = new AtomicLong();
+    private final ConcurrentHashMap<Long, Long> top = new ConcurrentHashMap<>();
+    private volatile long threshold;
+
+    /**
+     * @param capacity number of heavy hitters to keep
+     * @param width    counters per row, rounded up to a power of two
+     */
+    public HeavyHitterSketch(int capacity, int width) {
+        int roundedWidth = Integer.highestOneBit(Math.max(width - 1, 1)) << 1;
+        this.capacity = capacity;
+        this.widthMask = roundedWidth - 1;
+        this.counters = new AtomicLongArray(DEPTH * roundedWidth);
+    }
+
+    public void add(long key) {
+        long h1 = mix(key);
+        long h2 = mix(h1) | 1;
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            int index = row * (widthMask + 1) + (int) ((h1 + row * h2) & widthMask);
+            estimate = Math.min(estimate, counters.incrementAndGet(index));
+        }
+        total.incrementAndGet();
+        if (estimate <= threshold) {
+            return;
+        }
+        if (top.replace(key, estimate) == null) {
+            admit(key, estimate);
+        }
+    }
+
+    public long total() {
+        return total.get();
+    }
+
+    /**
+     * The current heavy hitters, most frequent first.
+     */
+    public List<HeavyHitter> top() {
+        return top.entrySet().stream()
+                .map(entry -> new HeavyHitter(entry.getKey(), entry.getValue()))
+                .sorted(Comparator.comparingLong(HeavyHitter::count).reversed())
+                .toList();
+    }
+
+    public synchronized void decay() {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.getAndUpdate(i, count -> count >> 1);
+        }
+        total.getAndUpdate(count -> count >> 1);
+        top.replaceAll((key, count) -> count >> 1);
+        top.values().removeIf(count -> count == 0);
+        updateThreshold();
+    }
+
+    private synchronized void admit(long key, long estimate) {
+        if (top.replace(key, estimate) != null) {
+            return;
+        }
+        if (top.size() >= capacity) {
+            Map.Entry<Long, Long> coldest = null;
+            for (Map.Entry<Long, Long> entry : top.entrySet()) {
+                if (coldest == null || entry.getValue() < coldest.getValue()) {
+                    coldest = entry;
+                }
+            }
+            if (coldest.getValue() >= estimate) {
+                updateThreshold();
+                return;
+            }
+            top.remove(coldest.getKey());
+        }
+        top.put(key, estimate);
+        updateThreshold();
+    }
+
+    private void updateThreshold() {
+        threshold = top.size() < capacity ? 0 : top.values().stream().mapToLong(Long::longValue).min().orElse(0);
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    public record HeavyHitter(long key, long count) {
+    }
+}
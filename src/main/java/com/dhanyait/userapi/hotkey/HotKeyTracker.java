@@ -0,0 +1,142 @@
+package com.dhanyait.userapi.hotkey;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Tracks the most requested user ids and emails with two {@link HeavyHitterSketch}es.
+ * Emails are tracked by {@link #emailHash} so no address is kept.
+ * <p>
+ * Counts halve every {@code user.hot-keys.half-life}. Once a second the ids holding at
+ * least {@code user.hot-keys.min-share} of recent lookups are published as the hot
+ * set. {@link #isHotId} reads that snapshot, so caches can pin hot users without
+ * touching the sketch.
+ */
+@Component
+@ConditionalOnProperty(name = "user.hot-keys.enabled", havingValue = "true")
+public class HotKeyTracker implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(HotKeyTracker.class);
+
+    private final HeavyHitterSketch ids;
+    private final HeavyHitterSketch emails;
+    private final Duration halfLife;
+    private final double minShare;
+    private final ScheduledExecutorService scheduler;
+    private final List<Runnable> hotSetListeners = new CopyOnWriteArrayList<>();
+    private volatile Set<Long> hotIds = Set.of();
+
+    public HotKeyTracker(@Value("${user.hot-keys.top-k:32}") int topK,
+                         @Value("${user.hot-keys.sketch-width:4096}") int sketchWidth,
+                         @Value("${user.hot-keys.half-life:60s}") Duration halfLife,
+                         @Value("${user.hot-keys.min-share:0.01}") double minShare) {
+        this.ids = new HeavyHitterSketch(topK, sketchWidth);
+        this.emails = new HeavyHitterSketch(topK, sketchWidth);
+        this.halfLife = halfLife;
+        this.minShare = minShare;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "user-hot-keys");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(this::publishHotSet, 1, 1, TimeUnit.SECONDS);
+        scheduler.scheduleAtFixedRate(this::decay, halfLife.toMillis(), halfLife.toMillis(), TimeUnit.MILLISECONDS);
+        logger.info("Tracking top {} user ids and emails, half-life {}", topK, halfLife);
+    }
+
+    public void recordId(long id) {
+        ids.add(id);
+    }
+
+    public void recordEmail(String email) {
+        emails.add(emailHash(email));
+    }
+
+    /**
+     * FNV-1a over the trimmed, lower-cased address: the key an email is counted under,
+     * and the {@code emailHash} that {@code /actuator/hotkeys} shows. The sketch mixes
+     * the bits itself.
+     */
+    public static long emailHash(String email) {
+        String normalized = email.trim().toLowerCase(Locale.ROOT);
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < normalized.length(); i++) {
+            h ^= normalized.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+
+    public boolean isHotId(long id) {
+        return hotIds.contains(id);
+    }
+
+    public Set<Long> hotIds() {
+        return hotIds;
+    }
+
+    /**
+     * Runs {@code listener} on the tracker's thread whenever the hot set is republished.
+     */
+    public void onHotSetChange(Runnable listener) {
+        hotSetListeners.add(listener);
+    }
+
+    public HeavyHitterSketch ids() {
+        return ids;
+    }
+
+    public HeavyHitterSketch emails() {
+        return emails;
+    }
+
+    public Duration halfLife() {
+        return halfLife;
+    }
+
+    public double minShare() {
+        return minShare;
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+
+    void publishHotSet() {
+        long floor = (long) Math.ceil(ids.total() * minShare);
+        Set<Long> next = ids.top().stream()
+                .filter(hitter -> hitter.count() >= Math.max(floor, 1))
+                .map(HeavyHitterSketch.HeavyHitter::key)
+                .collect(Collectors.toUnmodifiableSet());
+        if (!next.equals(hotIds)) {
+            hotIds = next;
+            for (Runnable listener : hotSetListeners) {
+                try {
+                    listener.run();
+                } catch (RuntimeException e) {
+                    logger.warn("Hot set listener failed", e);
+                }
+            }
+        }
+    }
+
+    private void decay() {
+        ids.decay();
+        emails.decay();
+    }
+}
@@ -0,0 +1,54 @@
+package com.dhanyait.userapi.hotkey;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongFunction;
+
+/**
+ * {@code /actuator/hotkeys}: the most requested user ids and email hashes over the
+ * decayed window, with each key's estimated share of lookups, and the ids currently
+ * pinned as hot.
+ */
+@Component
+@Endpoint(id = "hotkeys")
+@ConditionalOnProperty(name = "user.hot-keys.enabled", havingValue = "true")
+public class HotKeysEndpoint {
+
+    private final HotKeyTracker tracker;
+
+    public HotKeysEndpoint(HotKeyTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    @ReadOperation
+    public Map<String, Object> hotKeys() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("halfLife", tracker.halfLife());
+        result.put("minShare", tracker.minShare());
+        result.put("hotIds", tracker.hotIds());
+        result.put("ids", describe(tracker.ids(), "id", id -> id));
+        result.put("emails", describe(tracker.emails(), "emailHash", hash -> String.format("%016x", hash)));
+        return result;
+    }
+
+    private static Map<String, Object> describe(HeavyHitterSketch sketch, String keyName, LongFunction<Object> key) {
+        long total = sketch.total();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("total", total);
+        result.put("top", sketch.top().stream()
+                .map(hitter -> {
+                    Map<String, Object> entry = new LinkedHashMap<>();
+                    entry.put(keyName, key.apply(hitter.key()));
+                    entry.put("count", hitter.count());
+                    entry.put("share", total == 0 ? 0.0 : Math.min(1.0, (double) hitter.count() / total));
+                    return entry;
+                })
+                .toList());
+        return result;
+    }
+}
@@ -0,0 +1,82 @@
+package com.dhanyait.userapi.hotkey;
+
+import com.dhanyait.userapi.dto.UserDto;
+import com.dhanyait.userapi.service.UserChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Read cache that holds exactly the users {@link HotKeyTracker} currently considers hot.
+ * <p>
+ * Membership follows the hot set rather than recency: a hot user stays cached however
+ * many cold lookups pass by, and is dropped as soon as it cools down. Cold lookups go
+ * straight to the loader. Entries are evicted after every change committed through
+ * this instance; a load that overlaps such a change is not kept.
+ * <p>
+ * Changes made through other instances sharing the database are not seen. Every entry
+ * is therefore reloaded once it is {@code user.hot-keys.cache.ttl} old, which bounds
+ * how stale such a user can be.
+ */
+@Component
+@ConditionalOnProperty(name = "user.hot-keys.cache.enabled", havingValue = "true")
+public class HotUserCache {
+
+    private final HotKeyTracker tracker;
+    private final long ttlNanos;
+    private final ConcurrentHashMap<Long, Entry> users = new ConcurrentHashMap<>();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final Counter hits;
+    private final Counter misses;
+
+    public HotUserCache(HotKeyTracker tracker, MeterRegistry meterRegistry,
+                        @Value("${user.hot-keys.cache.ttl:2s}") Duration ttl) {
+        this.tracker = tracker;
+        this.ttlNanos = ttl.toNanos();
+        this.hits = Counter.builder("user.hot-keys.cache.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("user.hot-keys.cache.requests").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("user.hot-keys.cache.size", users, ConcurrentHashMap::size)
+                .description("Hot users currently pinned in the cache")
+                .register(meterRegistry);
+        tracker.onHotSetChange(() -> users.keySet().retainAll(tracker.hotIds()));
+    }
+
+    public UserDto get(Long id, Function<Long, UserDto> loader) {
+        if (!tracker.isHotId(id)) {
+            return loader.apply(id);
+        }
+        Entry cached = users.get(id);
+        if (cached != null && System.nanoTime() - cached.loadedAt() < ttlNanos) {
+            hits.increment();
+            return cached.user();
+        }
+        misses.increment();
+        long before = invalidations.get();
+        // Stamped before the read, so an entry is never older than the TTL says
+        long loadedAt = System.nanoTime();
+        Entry loaded = new Entry(loader.apply(id), loadedAt);
+        users.put(id, loaded);
+        if (invalidations.get() != before) {
+            users.remove(id, loaded);
+        }
+        return loaded.user();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        invalidations.incrementAndGet();
+        users.remove(event.userId());
+    }
+
+    private record Entry(UserDto user, long loadedAt) {
+    }
+}
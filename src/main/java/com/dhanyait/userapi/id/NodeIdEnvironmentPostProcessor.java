@@ -0,0 +1,35 @@
+package com.dhanyait.userapi.id;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Refuses to start outside development when {@code user.id.node-id} is not set. Two
+ * instances sharing the default node would mint the same ids and fail each other's
+ * inserts, so only the default, {@code dev} and {@code test} profiles fall back to node 0.
+ */
+public class NodeIdEnvironmentPostProcessor implements EnvironmentPostProcessor {
+
+    static final String PROPERTY = SnowflakeIdGenerator.NODE_ID_SETTING;
+    static final Set<String> DEVELOPMENT_PROFILES = Set.of("dev", "test");
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        String nodeId = environment.getProperty(PROPERTY);
+        if (nodeId != null && !nodeId.isBlank()) {
+            return;
+        }
+        String[] profiles = environment.getActiveProfiles();
+        if (!DEVELOPMENT_PROFILES.containsAll(Arrays.asList(profiles))) {
+            throw new IllegalStateException(PROPERTY + " must be set (e.g. via NODE_ID) when running with profiles "
+                    + Arrays.toString(profiles) + "; every instance writing to the same database needs its own");
+        }
+        environment.getPropertySources().addFirst(new MapPropertySource("defaultNodeId", Map.of(PROPERTY, "0")));
+    }
+}
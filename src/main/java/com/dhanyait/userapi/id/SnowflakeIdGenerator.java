@@ -0,0 +1,103 @@
+package com.dhanyait.userapi.id;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Member;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Mints 64-bit, time-ordered ids in memory, without a database round trip or a lock.
+ * <pre>
+ *  63      62 ........ 22   21 ...... 12   11 ....... 0
+ * [ 0 ][ 41 bits: ms since EPOCH ][ 10 bits: node ][ 12 bits: sequence ]
+ * </pre>
+ * The last issued timestamp and sequence share one {@link AtomicLong}, advanced with
+ * a compare-and-set loop. A new millisecond resets the sequence; within the same
+ * millisecond it counts up, and an overflow carries into the timestamp, borrowing
+ * the next millisecond. If the clock steps backwards the generator simply keeps
+ * counting from the last timestamp it issued, so ids stay strictly increasing per
+ * node and the primary-key index is only ever appended to. The clock catches up by
+ * itself; only a regression that spans a restart could repeat ids, which is why
+ * clocks should be slewed rather than stepped.
+ * <p>
+ * The node id comes from the Hibernate setting {@value #NODE_ID_SETTING}, filled from
+ * {@code user.id.node-id}; every instance writing to the same table needs its own.
+ * Hibernate keeps one generator per entity, which callers outside of {@code persist}
+ * can borrow through the entity persister so all ids come from one sequence.
+ */
+public class SnowflakeIdGenerator implements IdentifierGenerator {
+
+    public static final String NODE_ID_SETTING = "user.id.node-id";
+
+    /** 2024-01-01T00:00:00Z; 41 bits of milliseconds last until 2093. */
+    public static final long EPOCH = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    public static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    /** Smallest id this generator can issue; lower ids predate it and carry no node. */
+    public static final long MIN_ID = 1L << (NODE_BITS + SEQUENCE_BITS);
+
+    private static final Logger logger = LoggerFactory.getLogger(SnowflakeIdGenerator.class);
+
+    private final long node;
+    private final LongSupplier clock;
+    /** Last issued {@code (timestamp << SEQUENCE_BITS) | sequence}. */
+    private final AtomicLong last = new AtomicLong();
+
+    public SnowflakeIdGenerator(SnowflakeId config, Member member, CustomIdGeneratorCreationContext context) {
+        this(nodeId(context), System::currentTimeMillis);
+    }
+
+    public SnowflakeIdGenerator(int nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+        }
+        this.node = (long) nodeId << SEQUENCE_BITS;
+        this.clock = clock;
+        logger.info("Generating ids for node {}", nodeId);
+    }
+
+    public long nextId() {
+        while (true) {
+            long previous = last.get();
+            long now = clock.getAsLong() - EPOCH;
+            long next = now > previous >>> SEQUENCE_BITS ? now << SEQUENCE_BITS : previous + 1;
+            if (last.compareAndSet(previous, next)) {
+                return (next >>> SEQUENCE_BITS) << (NODE_BITS + SEQUENCE_BITS) | node | next & SEQUENCE_MASK;
+            }
+        }
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        return nextId();
+    }
+
+    public static Instant timestampOf(long id) {
+        return Instant.ofEpochMilli((id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH);
+    }
+
+    public static int nodeOf(long id) {
+        return (int) (id >>> SEQUENCE_BITS) & MAX_NODE_ID;
+    }
+
+    private static int nodeId(CustomIdGeneratorCreationContext context) {
+        Object value = context.getServiceRegistry().getService(ConfigurationService.class)
+                .getSettings().get(NODE_ID_SETTING);
+        try {
+            return value == null ? 0 : Integer.parseInt(value.toString().trim());
+        } catch (NumberFormatException e) {
+            throw new MappingException("Invalid " + NODE_ID_SETTING + ": " + value, e);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.dhanyait.userapi.journal;
+
+import com.dhanyait.userapi.service.UserChangedEvent;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+/**
+ * One record read back from the {@link UserJournal}.
+ *
+ * @param offset     journal offset of the record; replaying from it yields this record first
+ * @param nextOffset offset to resume from after this record
+ * @param timestamp  when the record was appended, which is not necessarily commit order
+ * @param updatedAt  the user's {@code updatedAt} after the change, {@code null} for a delete;
+ *                   an entry older than one already applied for the same user is stale
+ */
+public record JournalEntry(long offset, long nextOffset, UserChangedEvent.Type type, Instant timestamp,
+                           long userId, LocalDateTime updatedAt, String firstName, String lastName, String email) {
+}
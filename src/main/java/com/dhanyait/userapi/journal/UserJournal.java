@@ -0,0 +1,536 @@
+package com.dhanyait.userapi.journal;
+
+import com.dhanyait.userapi.dto.UserDto;
+import com.dhanyait.userapi.service.UserChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only journal of committed user changes, written through memory-mapped
+ * segment files.
+ * <p>
+ * Every record is a 4-byte length, a CRC32C of the payload and the payload, padded to
+ * 4 bytes. A writer reserves its slot with one {@code getAndAdd} on the segment
+ * position, copies checksum and payload and then publishes the length with release
+ * semantics, so concurrent request threads never wait on each other and a reader that
+ * sees a non-zero length sees the whole record. The writer that overflows a segment
+ * marks its end and rolls to a new one; only rolling takes a lock.
+ * <p>
+ * Records are appended after their transaction commits, by the committing request
+ * thread, so two changes of the same user can land out of commit order. Each record
+ * therefore carries the user's {@code updatedAt}: a replayer keeps, per user, the entry
+ * with the latest one and drops older ones that arrive after it. Deletes are final,
+ * since ids are never reused.
+ * <p>
+ * Appends do not fsync. A background thread forces the written range every
+ * {@code user.journal.flush-interval-ms}, so a crash loses at most that window. A
+ * sealed segment is forced once more after the writers still copying into it finish.
+ * Offsets are global: segment base plus position, and each segment is named after its
+ * base. A record is only read back when its length fits the segment and its checksum
+ * matches; the next start seals the last segment at its first unpublished or damaged
+ * record (zeroed pages, torn writes), and replay stops there. Only the newest
+ * {@code user.journal.retained-segments} segments are kept.
+ */
+@Component
+@ConditionalOnProperty(name = "user.journal.enabled", havingValue = "true")
+public class UserJournal implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserJournal.class);
+
+    private static final VarHandle INT = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+
+    private static final int MAGIC = 0x55534A4C; // "USJL"
+    private static final int VERSION = 3;
+    private static final int HEADER_SIZE = 32;
+    private static final int RECORD_HEADER_SIZE = 8;
+    private static final int CLEAN_OFFSET = 16;
+    private static final int END_OF_SEGMENT = -1;
+    private static final int NULL_STRING = -1;
+    private static final long NULL_TIME = Long.MIN_VALUE;
+    private static final String SUFFIX = ".journal";
+
+    private final Path dir;
+    private final int segmentSize;
+    private final int retainedSegments;
+    private final Object rollLock = new Object();
+    private final Queue<Segment> sealed = new ConcurrentLinkedQueue<>();
+
+    private FileChannel lockChannel;
+    private FileLock fileLock;
+    private ScheduledExecutorService flusher;
+    private volatile Segment active;
+
+    public UserJournal(@Value("${user.journal.dir}") Path dir,
+                       @Value("${user.journal.segment-size:67108864}") int segmentSize,
+                       @Value("${user.journal.retained-segments:8}") int retainedSegments,
+                       @Value("${user.journal.flush-interval-ms:10}") long flushIntervalMs) {
+        this.dir = dir;
+        this.segmentSize = segmentSize;
+        this.retainedSegments = retainedSegments;
+        try {
+            Files.createDirectories(dir);
+            lockChannel = FileChannel.open(dir.resolve("journal.lock"), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            fileLock = tryLock(lockChannel);
+            if (fileLock == null) {
+                logger.warn("Journal {} is in use elsewhere; user changes will not be journaled", dir);
+                lockChannel.close();
+                return;
+            }
+            List<Long> bases = segmentBases();
+            active = bases.isEmpty() ? Segment.create(segmentPath(0), 0, segmentSize) : recover(bases.get(bases.size() - 1));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open journal " + dir, e);
+        }
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "user-journal-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * False when another process (or application context) owns the directory;
+     * appends are then dropped.
+     */
+    public boolean isActive() {
+        return active != null;
+    }
+
+    /**
+     * Journals a change once its transaction has committed (or straight away when
+     * there is no transaction). Failures are logged, never thrown: the change itself
+     * is already committed.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        UserDto user = event.user();
+        try {
+            append(event.type(), event.userId(), user != null ? user.getUpdatedAt() : null,
+                    user != null ? user.getFirstName() : null, user != null ? user.getLastName() : null,
+                    user != null ? user.getEmail() : null);
+        } catch (RuntimeException e) {
+            logger.error("Could not journal {} of user {}", event.type(), event.userId(), e);
+        }
+    }
+
+    /**
+     * Appends one record and returns its offset, or -1 when the journal is inactive.
+     *
+     * @param updatedAt the user's {@code updatedAt} after the change, or {@code null} for a delete
+     */
+    public long append(UserChangedEvent.Type type, long userId, LocalDateTime updatedAt, String firstName,
+                       String lastName, String email) {
+        if (!isActive()) {
+            return -1;
+        }
+        byte[] payload = encode(type, userId, updatedAt, firstName, lastName, email);
+        int size = align(RECORD_HEADER_SIZE + payload.length);
+        if (size > segmentSize - HEADER_SIZE) {
+            throw new IllegalArgumentException("Journal record of " + size + " bytes does not fit a segment");
+        }
+        while (true) {
+            Segment segment = active;
+            // Counted before reserving, so the final force of a sealed segment can wait for us
+            segment.writers.incrementAndGet();
+            try {
+                long position = segment.position.getAndAdd(size);
+                if (position + size <= segment.capacity) {
+                    segment.buffer.putInt((int) position + 4, checksum(payload));
+                    segment.buffer.put((int) position + RECORD_HEADER_SIZE, payload);
+                    INT.setRelease(segment.buffer, (int) position, payload.length);
+                    return segment.base + position;
+                }
+                if (position + 4 <= segment.capacity) {
+                    // First writer past the end: tell readers to move on to the next segment
+                    INT.setRelease(segment.buffer, (int) position, END_OF_SEGMENT);
+                }
+            } finally {
+                segment.writers.decrementAndGet();
+            }
+            roll(segment);
+        }
+    }
+
+    /**
+     * Offset of the first record still on disk.
+     */
+    public long firstOffset() throws IOException {
+        List<Long> bases = segmentBases();
+        return (bases.isEmpty() ? 0 : bases.get(0)) + HEADER_SIZE;
+    }
+
+    /**
+     * Feeds every visible record at or after {@code fromOffset} to {@code consumer}
+     * in journal order and returns the offset to resume from. Offsets older than the
+     * retained segments start at {@link #firstOffset()}. Replay stops at a record
+     * whose writer has not yet published it, so calling again from the returned
+     * offset picks up where this call ended. A damaged record ends its segment.
+     */
+    public long replay(long fromOffset, Consumer<JournalEntry> consumer) throws IOException {
+        List<Long> bases = segmentBases();
+        long offset = bases.isEmpty() ? fromOffset : Math.max(fromOffset, bases.get(0) + HEADER_SIZE);
+        for (int i = 0; i < bases.size(); i++) {
+            long base = bases.get(i);
+            boolean last = i == bases.size() - 1;
+            try (FileChannel channel = FileChannel.open(segmentPath(base), StandardOpenOption.READ)) {
+                long capacity = channel.size();
+                if (offset >= base + capacity) {
+                    continue;
+                }
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, capacity);
+                if (!Segment.isCurrentVersion(buffer)) {
+                    logger.warn("Skipping journal segment {} written in another format", base);
+                    offset = last ? base + capacity : bases.get(i + 1) + HEADER_SIZE;
+                    continue;
+                }
+                int position = (int) Math.max(offset - base, HEADER_SIZE);
+                while (position + 4 <= capacity) {
+                    int length = (int) INT.getAcquire(buffer, position);
+                    if (length == 0) {
+                        return base + position;
+                    }
+                    if (length == END_OF_SEGMENT) {
+                        break;
+                    }
+                    int next = position + align(RECORD_HEADER_SIZE + length);
+                    JournalEntry entry = isIntact(buffer, position, length)
+                            ? decode(buffer, position + RECORD_HEADER_SIZE, length, base + position, base + next)
+                            : null;
+                    if (entry == null) {
+                        logger.warn("Journal record at offset {} is damaged; skipping the rest of its segment",
+                                base + position);
+                        break;
+                    }
+                    consumer.accept(entry);
+                    position = next;
+                }
+                if (last) {
+                    return base + position;
+                }
+                offset = bases.get(i + 1) + HEADER_SIZE;
+            }
+        }
+        return offset;
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        if (!isActive()) {
+            return;
+        }
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (rollLock) {
+            active.awaitWriters();
+            flush();
+            active.buffer.putInt(CLEAN_OFFSET, 1);
+            active.buffer.force();
+            active.channel.close();
+            fileLock.release();
+            lockChannel.close();
+        }
+    }
+
+    private void flush() {
+        try {
+            Segment segment;
+            while ((segment = sealed.poll()) != null) {
+                segment.awaitWriters();
+                segment.buffer.force();
+                segment.channel.close();
+            }
+            active.force();
+        } catch (IOException | RuntimeException e) {
+            logger.error("Could not flush journal {}", dir, e);
+        }
+    }
+
+    private void roll(Segment full) {
+        synchronized (rollLock) {
+            if (active != full) {
+                return;
+            }
+            try {
+                long base = full.base + full.capacity;
+                active = Segment.create(segmentPath(base), base, segmentSize);
+                sealed.add(full);
+                List<Long> bases = segmentBases();
+                for (int i = 0; i < bases.size() - retainedSegments; i++) {
+                    Files.deleteIfExists(segmentPath(bases.get(i)));
+                    logger.info("Dropped journal segment {} past retention", bases.get(i));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not roll journal " + dir, e);
+            }
+        }
+    }
+
+    private Segment recover(long base) throws IOException {
+        Segment segment = Segment.open(segmentPath(base), base);
+        if (segment == null) {
+            long next = base + Files.size(segmentPath(base));
+            logger.warn("Journal segment {} was written in another format; continuing at {}", base, next);
+            return Segment.create(segmentPath(next), next, segmentSize);
+        }
+        int position = HEADER_SIZE;
+        boolean damaged = false;
+        while (position + 4 <= segment.capacity) {
+            int length = segment.buffer.getInt(position);
+            if (length == 0) {
+                break;
+            }
+            if (length == END_OF_SEGMENT) {
+                position = segment.capacity;
+                break;
+            }
+            if (!isIntact(segment.buffer, position, length)) {
+                damaged = true;
+                break;
+            }
+            position += align(RECORD_HEADER_SIZE + length);
+        }
+        if ((damaged || segment.buffer.getInt(CLEAN_OFFSET) != 1) && position + 4 <= segment.capacity) {
+            // After a crash, records past the first unpublished or damaged one may be
+            // torn: seal the segment there so the next append starts a fresh one
+            logger.warn("Journal {} {}; sealing segment at offset {}", dir,
+                    damaged ? "has a damaged record" : "was not closed cleanly", base + position);
+            segment.buffer.putInt(position, END_OF_SEGMENT);
+            position = segment.capacity;
+        }
+        segment.buffer.putInt(CLEAN_OFFSET, 0);
+        segment.position.set(position);
+        logger.info("Reopened journal {} at offset {}", dir, base + position);
+        return segment;
+    }
+
+    private List<Long> segmentBases() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.endsWith(SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(0, name.length() - SUFFIX.length())))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private Path segmentPath(long base) {
+        return dir.resolve(String.format("%020d%s", base, SUFFIX));
+    }
+
+    private static byte[] encode(UserChangedEvent.Type type, long userId, LocalDateTime updatedAt,
+                                 String firstName, String lastName, String email) {
+        byte[] first = bytes(firstName);
+        byte[] last = bytes(lastName);
+        byte[] mail = bytes(email);
+        ByteBuffer payload = ByteBuffer.allocate(8 + 8 + 12 + 1 + 12 + length(first) + length(last) + length(mail));
+        payload.putLong(System.currentTimeMillis()).putLong(userId);
+        if (updatedAt == null) {
+            payload.putLong(NULL_TIME).putInt(0);
+        } else {
+            payload.putLong(updatedAt.toEpochSecond(ZoneOffset.UTC)).putInt(updatedAt.getNano());
+        }
+        payload.put((byte) type.ordinal());
+        putString(payload, first);
+        putString(payload, last);
+        putString(payload, mail);
+        return payload.array();
+    }
+
+    /**
+     * Whether the record at {@code position} has a length that fits the segment and a
+     * payload matching its checksum.
+     */
+    private static boolean isIntact(ByteBuffer buffer, int position, int length) {
+        if (length <= 0 || length > buffer.capacity() - position - RECORD_HEADER_SIZE) {
+            return false;
+        }
+        CRC32C crc = new CRC32C();
+        int payload = position + RECORD_HEADER_SIZE;
+        crc.update(buffer.duplicate().position(payload).limit(payload + length));
+        return (int) crc.getValue() == buffer.getInt(position + 4);
+    }
+
+    private static int checksum(byte[] payload) {
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Decodes one payload, or returns {@code null} if it does not parse.
+     */
+    private static JournalEntry decode(ByteBuffer buffer, int position, int length, long offset, long nextOffset) {
+        ByteBuffer payload = buffer.duplicate().position(position).limit(position + length);
+        try {
+            long timestamp = payload.getLong();
+            long userId = payload.getLong();
+            long updatedAtSeconds = payload.getLong();
+            int updatedAtNanos = payload.getInt();
+            LocalDateTime updatedAt = updatedAtSeconds == NULL_TIME ? null
+                    : LocalDateTime.ofEpochSecond(updatedAtSeconds, updatedAtNanos, ZoneOffset.UTC);
+            int ordinal = payload.get();
+            UserChangedEvent.Type[] types = UserChangedEvent.Type.values();
+            if (ordinal < 0 || ordinal >= types.length) {
+                return null;
+            }
+            return new JournalEntry(offset, nextOffset, types[ordinal], Instant.ofEpochMilli(timestamp), userId,
+                    updatedAt, getString(payload), getString(payload), getString(payload));
+        } catch (BufferUnderflowException | IllegalArgumentException | DateTimeException e) {
+            return null;
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    private static int length(byte[] value) {
+        return value != null ? value.length : 0;
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] value) {
+        if (value == null) {
+            buffer.putInt(NULL_STRING);
+        } else {
+            buffer.putInt(value.length).put(value);
+        }
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length == NULL_STRING) {
+            return null;
+        }
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IllegalArgumentException("String length " + length + " exceeds record");
+        }
+        byte[] value = new byte[length];
+        buffer.get(value);
+        return new String(value, StandardCharsets.UTF_8);
+    }
+
+    private static int align(int size) {
+        return (size + 3) & ~3;
+    }
+
+    private static FileLock tryLock(FileChannel channel) throws IOException {
+        try {
+            return channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            return null;
+        }
+    }
+
+    private static final class Segment {
+        private final long base;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private final int capacity;
+        private final AtomicLong position;
+        private final AtomicInteger writers = new AtomicInteger();
+        private int forcedFrom = HEADER_SIZE;
+        private int forcedTo = HEADER_SIZE;
+
+        private Segment(long base, FileChannel channel, MappedByteBuffer buffer, int position) {
+            this.base = base;
+            this.channel = channel;
+            this.buffer = buffer;
+            this.capacity = buffer.capacity();
+            this.position = new AtomicLong(position);
+        }
+
+        static Segment create(Path path, long base, int size) throws IOException {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.putInt(0, MAGIC).putInt(4, VERSION).putLong(8, base);
+            buffer.force(0, HEADER_SIZE);
+            return new Segment(base, channel, buffer, HEADER_SIZE);
+        }
+
+        /**
+         * Opens an existing segment, or returns {@code null} if it is in an older format.
+         */
+        static Segment open(Path path, long base) throws IOException {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getLong(8) != base) {
+                channel.close();
+                throw new IOException("Not a journal segment: " + path);
+            }
+            if (!isCurrentVersion(buffer)) {
+                channel.close();
+                return null;
+            }
+            return new Segment(base, channel, buffer, HEADER_SIZE);
+        }
+
+        /**
+         * Waits for writers that reserved a slot before the segment was sealed to finish
+         * copying; later ones only find it full. Each copy is a few hundred bytes.
+         */
+        void awaitWriters() {
+            while (writers.get() > 0) {
+                Thread.yield();
+            }
+        }
+
+        static boolean isCurrentVersion(ByteBuffer buffer) {
+            return buffer.capacity() >= HEADER_SIZE && buffer.getInt(4) == VERSION;
+        }
+
+        /**
+         * Called from the flusher thread only. Each pass also re-covers the previous
+         * pass's range: a record reserved before that pass may have been copied after it.
+         */
+        void force() {
+            int end = (int) Math.min(position.get(), capacity);
+            if (end > forcedFrom) {
+                buffer.force(forcedFrom, end - forcedFrom);
+            }
+            forcedFrom = forcedTo;
+            forcedTo = end;
+        }
+    }
+}
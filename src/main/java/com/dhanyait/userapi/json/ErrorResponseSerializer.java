@@ -0,0 +1,51 @@
+package com.dhanyait.userapi.json;
+
+import com.dhanyait.userapi.exception.GlobalExceptionHandler.ErrorResponse;
+import com.dhanyait.userapi.exception.GlobalExceptionHandler.ValidationErrorResponse;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Writes {@link ErrorResponse} and {@link ValidationErrorResponse} bodies in the
+ * bean serializer's property order.
+ */
+class ErrorResponseSerializer extends StdSerializer<ErrorResponse> {
+
+    private static final SerializedString STATUS = new SerializedString("status");
+    private static final SerializedString MESSAGE = new SerializedString("message");
+    private static final SerializedString TIMESTAMP = new SerializedString("timestamp");
+    private static final SerializedString ERRORS = new SerializedString("errors");
+
+    ErrorResponseSerializer() {
+        super(ErrorResponse.class);
+    }
+
+    @Override
+    public void serialize(ErrorResponse error, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(error);
+        gen.writeFieldName(STATUS);
+        gen.writeNumber(error.getStatus());
+        gen.writeFieldName(MESSAGE);
+        gen.writeString(error.getMessage());
+        gen.writeFieldName(TIMESTAMP);
+        UserDtoSerializer.writeTimestamp(gen, error.getTimestamp());
+        if (error instanceof ValidationErrorResponse validation) {
+            gen.writeFieldName(ERRORS);
+            if (validation.getErrors() == null) {
+                gen.writeNull();
+            } else {
+                gen.writeStartObject();
+                for (Map.Entry<String, String> entry : validation.getErrors().entrySet()) {
+                    gen.writeStringField(entry.getKey(), entry.getValue());
+                }
+                gen.writeEndObject();
+            }
+        }
+        gen.writeEndObject();
+    }
+}
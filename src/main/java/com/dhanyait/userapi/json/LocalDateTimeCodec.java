@@ -0,0 +1,121 @@
+package com.dhanyait.userapi.json;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Allocation-light ISO-8601 codec producing exactly what
+ * {@link DateTimeFormatter#ISO_LOCAL_DATE_TIME} does (and therefore Jackson's
+ * JSR-310 serializer): seconds always present, fraction trimmed of trailing zeros.
+ * Years outside 0..9999 fall back to the JDK formatter.
+ */
+final class LocalDateTimeCodec {
+
+    /** Longest fast-path value: {@code yyyy-MM-ddTHH:mm:ss.nnnnnnnnn}. */
+    static final int MAX_LENGTH = 29;
+
+    private LocalDateTimeCodec() {
+    }
+
+    /**
+     * Writes {@code value} into {@code buf} from offset 0 and returns the length,
+     * or -1 when the year needs the JDK formatter.
+     */
+    static int format(LocalDateTime value, char[] buf) {
+        int year = value.getYear();
+        if (year < 0 || year > 9999) {
+            return -1;
+        }
+        digits4(buf, 0, year);
+        buf[4] = '-';
+        digits2(buf, 5, value.getMonthValue());
+        buf[7] = '-';
+        digits2(buf, 8, value.getDayOfMonth());
+        buf[10] = 'T';
+        digits2(buf, 11, value.getHour());
+        buf[13] = ':';
+        digits2(buf, 14, value.getMinute());
+        buf[16] = ':';
+        digits2(buf, 17, value.getSecond());
+        int nano = value.getNano();
+        if (nano == 0) {
+            return 19;
+        }
+        buf[19] = '.';
+        int length = 20;
+        for (int divisor = 100_000_000; nano > 0; divisor /= 10) {
+            buf[length++] = (char) ('0' + nano / divisor);
+            nano %= divisor;
+        }
+        return length;
+    }
+
+    static String format(LocalDateTime value) {
+        char[] buf = new char[MAX_LENGTH];
+        int length = format(value, buf);
+        return length < 0 ? DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value) : new String(buf, 0, length);
+    }
+
+    /**
+     * Parses the canonical layout written by {@link #format(LocalDateTime, char[])}.
+     * Returns null for anything else so callers can defer to the lenient JSR-310 parser.
+     */
+    static LocalDateTime parse(String text) {
+        int length = text.length();
+        if (length < 19 || length > MAX_LENGTH || length == 20
+                || text.charAt(4) != '-' || text.charAt(7) != '-' || text.charAt(10) != 'T'
+                || text.charAt(13) != ':' || text.charAt(16) != ':') {
+            return null;
+        }
+        int year = number(text, 0, 4);
+        int month = number(text, 5, 7);
+        int day = number(text, 8, 10);
+        int hour = number(text, 11, 13);
+        int minute = number(text, 14, 16);
+        int second = number(text, 17, 19);
+        int nano = 0;
+        if (length > 19) {
+            if (text.charAt(19) != '.') {
+                return null;
+            }
+            int fraction = number(text, 20, length);
+            if (fraction < 0) {
+                return null;
+            }
+            nano = fraction;
+            for (int i = length; i < MAX_LENGTH; i++) {
+                nano *= 10;
+            }
+        }
+        if ((year | month | day | hour | minute | second) < 0) {
+            return null;
+        }
+        try {
+            return LocalDateTime.of(year, month, day, hour, minute, second, nano);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static int number(String text, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static void digits2(char[] buf, int offset, int value) {
+        buf[offset] = (char) ('0' + value / 10);
+        buf[offset + 1] = (char) ('0' + value % 10);
+    }
+
+    private static void digits4(char[] buf, int offset, int value) {
+        digits2(buf, offset, value / 100);
+        digits2(buf, offset + 2, value % 100);
+    }
+}
@@ -0,0 +1,73 @@
+package com.dhanyait.userapi.json;
+
+import com.dhanyait.userapi.dto.UserDto;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * Reads {@link UserDto} without bean introspection. Canonical values take the
+ * fast path; anything else (string ids, array timestamps, unknown properties)
+ * is handed to the regular Jackson deserializers so behaviour stays the same.
+ */
+class UserDtoDeserializer extends StdDeserializer<UserDto> {
+
+    UserDtoDeserializer() {
+        super(UserDto.class);
+    }
+
+    @Override
+    public UserDto deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            token = p.nextToken();
+        } else if (token != JsonToken.FIELD_NAME && token != JsonToken.END_OBJECT) {
+            return (UserDto) ctxt.handleUnexpectedToken(UserDto.class, p);
+        }
+        UserDto user = new UserDto();
+        for (; token == JsonToken.FIELD_NAME; token = p.nextToken()) {
+            String name = p.currentName();
+            JsonToken value = p.nextToken();
+            switch (name) {
+                case "id" -> user.setId(readLong(p, ctxt, value));
+                case UserDto.ID_STR -> p.skipChildren();
+                case "firstName" -> user.setFirstName(readString(p, ctxt, value));
+                case "lastName" -> user.setLastName(readString(p, ctxt, value));
+                case "email" -> user.setEmail(readString(p, ctxt, value));
+                case "createdAt" -> user.setCreatedAt(readTimestamp(p, ctxt, value));
+                case "updatedAt" -> user.setUpdatedAt(readTimestamp(p, ctxt, value));
+                default -> ctxt.handleUnknownProperty(p, this, UserDto.class, name);
+            }
+        }
+        return user;
+    }
+
+    private static Long readLong(JsonParser p, DeserializationContext ctxt, JsonToken value) throws IOException {
+        if (value == JsonToken.VALUE_NUMBER_INT) {
+            return p.getLongValue();
+        }
+        return value == JsonToken.VALUE_NULL ? null : ctxt.readValue(p, Long.class);
+    }
+
+    private static String readString(JsonParser p, DeserializationContext ctxt, JsonToken value) throws IOException {
+        if (value == JsonToken.VALUE_STRING) {
+            return p.getText();
+        }
+        return value == JsonToken.VALUE_NULL ? null : ctxt.readValue(p, String.class);
+    }
+
+    private static LocalDateTime readTimestamp(JsonParser p, DeserializationContext ctxt, JsonToken value)
+            throws IOException {
+        if (value == JsonToken.VALUE_STRING) {
+            LocalDateTime parsed = LocalDateTimeCodec.parse(p.getText());
+            if (parsed != null) {
+                return parsed;
+            }
+        }
+        return value == JsonToken.VALUE_NULL ? null : ctxt.readValue(p, LocalDateTime.class);
+    }
+}
@@ -0,0 +1,71 @@
+package com.dhanyait.userapi.json;
+
+import com.dhanyait.userapi.dto.UserDto;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * Writes {@link UserDto} in the same property order and format as Jackson's bean
+ * serializer, using pre-encoded field names and {@link LocalDateTimeCodec}.
+ */
+class UserDtoSerializer extends StdSerializer<UserDto> {
+
+    static final SerializedString ID = new SerializedString("id");
+    static final SerializedString ID_STR = new SerializedString(UserDto.ID_STR);
+    static final SerializedString FIRST_NAME = new SerializedString("firstName");
+    static final SerializedString LAST_NAME = new SerializedString("lastName");
+    static final SerializedString EMAIL = new SerializedString("email");
+    static final SerializedString CREATED_AT = new SerializedString("createdAt");
+    static final SerializedString UPDATED_AT = new SerializedString("updatedAt");
+
+    /** Scratch space for timestamps; the generator copies it out before returning. */
+    private static final ThreadLocal<char[]> TIMESTAMP_BUFFER =
+            ThreadLocal.withInitial(() -> new char[LocalDateTimeCodec.MAX_LENGTH]);
+
+    UserDtoSerializer() {
+        super(UserDto.class);
+    }
+
+    @Override
+    public void serialize(UserDto user, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(user);
+        gen.writeFieldName(ID);
+        if (user.getId() == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(user.getId());
+        }
+        gen.writeFieldName(ID_STR);
+        gen.writeString(user.getIdStr());
+        gen.writeFieldName(FIRST_NAME);
+        gen.writeString(user.getFirstName());
+        gen.writeFieldName(LAST_NAME);
+        gen.writeString(user.getLastName());
+        gen.writeFieldName(EMAIL);
+        gen.writeString(user.getEmail());
+        gen.writeFieldName(CREATED_AT);
+        writeTimestamp(gen, user.getCreatedAt());
+        gen.writeFieldName(UPDATED_AT);
+        writeTimestamp(gen, user.getUpdatedAt());
+        gen.writeEndObject();
+    }
+
+    static void writeTimestamp(JsonGenerator gen, LocalDateTime value) throws IOException {
+        if (value == null) {
+            gen.writeNull();
+            return;
+        }
+        char[] buf = TIMESTAMP_BUFFER.get();
+        int length = LocalDateTimeCodec.format(value, buf);
+        if (length < 0) {
+            gen.writeString(LocalDateTimeCodec.format(value));
+        } else {
+            gen.writeString(buf, 0, length);
+        }
+    }
+}
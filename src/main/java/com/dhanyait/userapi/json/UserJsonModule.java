@@ -0,0 +1,22 @@
+package com.dhanyait.userapi.json;
+
+import com.dhanyait.userapi.dto.UserDto;
+import com.dhanyait.userapi.exception.GlobalExceptionHandler.ErrorResponse;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.springframework.stereotype.Component;
+
+/**
+ * Replaces Jackson's reflective bean (de)serialization of the API payloads with
+ * hand-written codecs. Spring Boot registers every {@code Module} bean with the
+ * application's {@code ObjectMapper}; the wire format is unchanged.
+ */
+@Component
+public class UserJsonModule extends SimpleModule {
+
+    public UserJsonModule() {
+        super("UserJsonModule");
+        addSerializer(UserDto.class, new UserDtoSerializer());
+        addDeserializer(UserDto.class, new UserDtoDeserializer());
+        addSerializer(ErrorResponse.class, new ErrorResponseSerializer());
+    }
+}
@@ -3,6 +3,9 @@ package com.dhanyait.userapi.mapper;
 
 import com.dhanyait.userapi.dto.UserDto;
 import com.dhanyait.userapi.entity.User;
+import com.dhanyait.userapi.monitoring.UserOperationRecorder;
+import org.mapstruct.AfterMapping;
+import org.mapstruct.BeforeMapping;
 import org.mapstruct.Mapper;
 import org.mapstruct.MappingTarget;
 import org.mapstruct.NullValuePropertyMappingStrategy;
@@ -20,4 +23,14 @@ public interface UserMapper {
     List<UserDto> toDtoList(List<User> users);
 
     void updateEntityFromDto(UserDto userDto, @MappingTarget User user);
+
+    @BeforeMapping
+    default void beforeMapping() {
+        UserOperationRecorder.mappingStarted();
+    }
+
+    @AfterMapping
+    default void afterMapping() {
+        UserOperationRecorder.mappingFinished();
+    }
 }
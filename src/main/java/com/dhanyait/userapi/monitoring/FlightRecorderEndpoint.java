@@ -0,0 +1,117 @@
+package com.dhanyait.userapi.monitoring;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code /actuator/jfr}: starts a Flight Recorder recording with one of the JDK's
+ * presets ({@code default} or {@code profile}) and returns the {@code .jfr} file on stop.
+ * Only one recording is managed at a time.
+ * <p>
+ * The presets would capture the process environment and system properties, which hold
+ * credentials; those events are switched off. Each dump goes to its own owner-only temp
+ * file that is deleted once it has been streamed back. The endpoint is not exposed over
+ * HTTP by default.
+ */
+@Component
+@Endpoint(id = "jfr")
+public class FlightRecorderEndpoint {
+
+    private static final Logger logger = LoggerFactory.getLogger(FlightRecorderEndpoint.class);
+
+    /** Events whose payload may contain secrets: the environment and {@code -D} properties. */
+    static final List<String> SENSITIVE_EVENTS = List.of("jdk.InitialEnvironmentVariable", "jdk.InitialSystemProperty");
+
+    private final Path dumpDir;
+    private Recording recording;
+
+    public FlightRecorderEndpoint(@Value("${user.jfr.dump-dir:data/jfr}") Path dumpDir) {
+        this.dumpDir = dumpDir;
+    }
+
+    @ReadOperation
+    public synchronized Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("state", recording == null ? RecordingState.CLOSED : recording.getState());
+        if (recording != null) {
+            status.put("startTime", recording.getStartTime());
+            status.put("maxAge", recording.getMaxAge());
+            status.put("size", recording.getSize());
+        }
+        return status;
+    }
+
+    @WriteOperation
+    public synchronized Map<String, Object> start(@Nullable String settings, @Nullable Long maxAgeSeconds)
+            throws IOException, ParseException {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            return status();
+        }
+        closeRecording();
+        recording = new Recording(Configuration.getConfiguration(settings != null ? settings : "profile"));
+        recording.setName("user-api");
+        recording.enable(UserOperationEvent.class);
+        SENSITIVE_EVENTS.forEach(recording::disable);
+        recording.setToDisk(true);
+        recording.setMaxAge(Duration.ofSeconds(maxAgeSeconds != null ? maxAgeSeconds : 600));
+        recording.start();
+        logger.info("Started JFR recording with '{}' settings", settings != null ? settings : "profile");
+        return status();
+    }
+
+    @DeleteOperation(produces = "application/octet-stream")
+    public synchronized WebEndpointResponse<Resource> stop() throws IOException {
+        if (recording == null || recording.getState() != RecordingState.RUNNING) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        recording.stop();
+        Files.createDirectories(dumpDir);
+        Path dumpFile = Files.createTempFile(dumpDir, "user-api-", ".jfr");
+        try {
+            recording.dump(dumpFile);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(dumpFile);
+            throw e;
+        } finally {
+            closeRecording();
+        }
+        logger.info("Stopped JFR recording, dumped to {}", dumpFile);
+        return new WebEndpointResponse<>(new FileSystemResource(dumpFile) {
+            @Override
+            public InputStream getInputStream() throws IOException {
+                return Files.newInputStream(dumpFile, StandardOpenOption.DELETE_ON_CLOSE);
+            }
+        });
+    }
+
+    private void closeRecording() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.dhanyait.userapi.monitoring;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@code /actuator/hibernate}: Hibernate {@link Statistics} since startup, with one
+ * entry per HQL/native query ordered by total time spent in it. Requires
+ * {@code hibernate.generate_statistics=true}. Read-only, since it is exposed over HTTP
+ * by default: compare two snapshots rather than resetting the counters.
+ */
+@Component
+@Endpoint(id = "hibernate")
+public class HibernateStatisticsEndpoint {
+
+    private final Statistics statistics;
+
+    public HibernateStatisticsEndpoint(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @ReadOperation
+    public Map<String, Object> statistics() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", statistics.isStatisticsEnabled());
+        result.put("startTime", statistics.getStart());
+        result.put("sessions", statistics.getSessionOpenCount());
+        result.put("transactions", statistics.getTransactionCount());
+        result.put("preparedStatements", statistics.getPrepareStatementCount());
+
+        Map<String, Object> entities = new LinkedHashMap<>();
+        entities.put("loads", statistics.getEntityLoadCount());
+        entities.put("fetches", statistics.getEntityFetchCount());
+        entities.put("inserts", statistics.getEntityInsertCount());
+        entities.put("updates", statistics.getEntityUpdateCount());
+        entities.put("deletes", statistics.getEntityDeleteCount());
+        result.put("entities", entities);
+
+        result.put("secondLevelCache", cache(statistics.getSecondLevelCacheHitCount(),
+                statistics.getSecondLevelCacheMissCount(), statistics.getSecondLevelCachePutCount()));
+        result.put("queryCache", cache(statistics.getQueryCacheHitCount(),
+                statistics.getQueryCacheMissCount(), statistics.getQueryCachePutCount()));
+
+        Map<String, Object> queries = new LinkedHashMap<>();
+        queries.put("executions", statistics.getQueryExecutionCount());
+        queries.put("maxTimeMs", statistics.getQueryExecutionMaxTime());
+        queries.put("slowest", statistics.getQueryExecutionMaxTimeQueryString());
+        queries.put("byQuery", Arrays.stream(statistics.getQueries())
+                .map(query -> query(query, statistics.getQueryStatistics(query)))
+                .sorted(Comparator.comparingLong(query -> -(long) query.get("totalTimeMs")))
+                .toList());
+        result.put("queries", queries);
+        return result;
+    }
+
+    private static Map<String, Object> query(String query, QueryStatistics stats) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("query", query);
+        result.put("executions", stats.getExecutionCount());
+        result.put("rows", stats.getExecutionRowCount());
+        result.put("meanTimeMs", stats.getExecutionAvgTimeAsDouble());
+        result.put("maxTimeMs", stats.getExecutionMaxTime());
+        result.put("totalTimeMs", stats.getExecutionTotalTime());
+        result.put("cache", cache(stats.getCacheHitCount(), stats.getCacheMissCount(), stats.getCachePutCount()));
+        return result;
+    }
+
+    private static Map<String, Object> cache(long hits, long misses, long puts) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("hits", hits);
+        result.put("misses", misses);
+        result.put("puts", puts);
+        result.put("hitRatio", hits + misses == 0 ? 0.0 : (double) hits / (hits + misses));
+        return result;
+    }
+}
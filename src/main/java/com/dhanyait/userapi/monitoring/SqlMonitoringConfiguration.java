@@ -0,0 +1,28 @@
+package com.dhanyait.userapi.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Set;
+
+/**
+ * Per-request SQL statement counting; the counter itself is registered with Hibernate
+ * through {@code spring.jpa.properties.hibernate.session_factory.statement_inspector}.
+ */
+@Configuration(proxyBeanMethods = false)
+public class SqlMonitoringConfiguration {
+
+    @Bean
+    public FilterRegistrationBean<SqlStatementCountFilter> sqlStatementCountFilter(
+            MeterRegistry meterRegistry,
+            @Value("${user.sql.statement-warn-threshold:10}") int warnThreshold,
+            @Value("${user.sql.bulk-uris:}") Set<String> bulkUris) {
+        FilterRegistrationBean<SqlStatementCountFilter> registration =
+                new FilterRegistrationBean<>(new SqlStatementCountFilter(meterRegistry, warnThreshold, bulkUris));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+}
@@ -0,0 +1,67 @@
+package com.dhanyait.userapi.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Counts the SQL statements each request issues on its own thread and records them
+ * in {@code user.sql.statements}, tagged with the method and URI pattern. Requests
+ * above {@code user.sql.statement-warn-threshold} are logged with their statements,
+ * which is usually the first sign of an N+1 query; bulk endpoints listed in
+ * {@code user.sql.bulk-uris} issue one statement per row by design and are only measured.
+ */
+public class SqlStatementCountFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlStatementCountFilter.class);
+
+    private final MeterRegistry meterRegistry;
+    private final int warnThreshold;
+    private final Set<String> bulkUris;
+    /** One summary per method and URI pattern, registered on first use. */
+    private final Map<Route, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    public SqlStatementCountFilter(MeterRegistry meterRegistry, int warnThreshold, Set<String> bulkUris) {
+        this.meterRegistry = meterRegistry;
+        this.warnThreshold = warnThreshold;
+        this.bulkUris = bulkUris;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        try (SqlStatementCounter.Scope sql = SqlStatementCounter.open()) {
+            chain.doFilter(request, response);
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+            summaries.computeIfAbsent(new Route(request.getMethod(), uri), this::register).record(sql.count());
+            if (sql.count() > warnThreshold && !bulkUris.contains(uri)) {
+                logger.warn("{} {} issued {} SQL statements (threshold {}): {}",
+                        request.getMethod(), uri, sql.count(), warnThreshold, sql.statements());
+            }
+        }
+    }
+
+    private DistributionSummary register(Route route) {
+        return DistributionSummary.builder("user.sql.statements")
+                .description("SQL statements issued per request")
+                .tag("method", route.method())
+                .tag("uri", route.uri())
+                .register(meterRegistry);
+    }
+
+    private record Route(String method, String uri) {
+    }
+}
@@ -0,0 +1,89 @@
+package com.dhanyait.userapi.monitoring;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread.
+ * <p>
+ * Registered through {@code hibernate.session_factory.statement_inspector}, so it sees
+ * every statement Hibernate sends, including native queries. Counting only happens
+ * inside a {@link Scope}: {@link SqlStatementCountFilter} opens one per HTTP request,
+ * and tests open their own to pin how many statements an operation may issue:
+ * <pre>{@code
+ * try (SqlStatementCounter.Scope sql = SqlStatementCounter.open()) {
+ *     userService.getUserById(id);
+ *     assertThat(sql.statements()).hasSize(1);
+ * }
+ * }</pre>
+ * Work handed to other threads, such as {@link com.dhanyait.userapi.service.UserBatchLoader}
+ * batches, is not attributed to the scope that caused it.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    /** Statements kept per scope for diagnostics; later ones are only counted. */
+    static final int MAX_RECORDED = 50;
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    public static Scope open() {
+        Scope scope = new Scope(CURRENT.get());
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Scope scope = CURRENT.get();
+        if (scope != null) {
+            scope.record(sql);
+        }
+        return sql;
+    }
+
+    public static final class Scope implements AutoCloseable {
+
+        private final Scope parent;
+        private final List<String> statements = new ArrayList<>();
+        private int count;
+
+        private Scope(Scope parent) {
+            this.parent = parent;
+        }
+
+        public int count() {
+            return count;
+        }
+
+        /**
+         * The first {@value SqlStatementCounter#MAX_RECORDED} statements, in execution order.
+         */
+        public List<String> statements() {
+            return Collections.unmodifiableList(statements);
+        }
+
+        @Override
+        public void close() {
+            if (CURRENT.get() == this) {
+                if (parent != null) {
+                    CURRENT.set(parent);
+                } else {
+                    CURRENT.remove();
+                }
+            }
+        }
+
+        private void record(String sql) {
+            count++;
+            if (statements.size() < MAX_RECORDED) {
+                statements.add(sql);
+            }
+            if (parent != null) {
+                parent.record(sql);
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.dhanyait.userapi.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight Recorder event emitted for every public {@code UserService} call.
+ */
+@Name("com.dhanyait.userapi.UserOperation")
+@Label("User Operation")
+@Category({"User API"})
+@Description("A UserService call with the time spent in the user store and the mapper")
+@StackTrace(false)
+public class UserOperationEvent extends Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("User Id")
+    @Description("Id argument of the call, or -1 when the operation has none")
+    long userId;
+
+    @Label("DB Time")
+    @Description("Time spent executing JDBC statements; excludes the transaction commit")
+    @Timespan(Timespan.NANOSECONDS)
+    long dbTime;
+
+    @Label("Mapping Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long mappingTime;
+
+    @Label("Outcome")
+    @Description("SUCCESS or the simple name of the exception thrown")
+    String outcome;
+}
@@ -0,0 +1,27 @@
+package com.dhanyait.userapi.monitoring;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Adds the time of each JDBC statement to the {@link UserOperationEvent} of the
+ * current thread, if any. Picked up by the datasource proxy that
+ * {@code jdbc.datasource-proxy.enabled} (on by default) wraps around the pools.
+ */
+@Component
+public class UserOperationQueryListener implements QueryExecutionListener {
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        UserOperationRecorder.queryStarted();
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        UserOperationRecorder.queryFinished();
+    }
+}
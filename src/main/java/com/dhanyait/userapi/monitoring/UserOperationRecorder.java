@@ -0,0 +1,95 @@
+package com.dhanyait.userapi.monitoring;
+
+import jdk.jfr.EventType;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Emits a {@link UserOperationEvent} around each public {@code UserService} method.
+ * <p>
+ * Only the service is advised. Nested time is reported to the operation running on
+ * the current thread instead: JDBC statements by {@link UserOperationQueryListener},
+ * and {@code UserMapper} calls through its {@code @BeforeMapping}/{@code @AfterMapping}
+ * hooks. When no recording has the event enabled, the advice is one enabled check
+ * followed by {@code proceed()}, and each hook a thread-local read.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 100)
+public class UserOperationRecorder {
+
+    private static final EventType EVENT_TYPE = EventType.getEventType(UserOperationEvent.class);
+    private static final ThreadLocal<Operation> CURRENT = new ThreadLocal<>();
+
+    @Around("execution(public * com.dhanyait.userapi.service.UserService.*(..))")
+    public Object recordOperation(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!EVENT_TYPE.isEnabled() || CURRENT.get() != null) {
+            return joinPoint.proceed();
+        }
+        Operation operation = new Operation();
+        UserOperationEvent event = operation.event;
+        event.operation = joinPoint.getSignature().getName();
+        event.userId = idArgument(joinPoint.getArgs());
+        event.outcome = "SUCCESS";
+        CURRENT.set(operation);
+        event.begin();
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            event.outcome = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            event.commit();
+            CURRENT.remove();
+        }
+    }
+
+    /**
+     * Called before each mapping; nested mappings, such as the elements of a list,
+     * count once.
+     */
+    public static void mappingStarted() {
+        Operation operation = CURRENT.get();
+        if (operation != null && operation.mappingDepth++ == 0) {
+            operation.mappingStart = System.nanoTime();
+        }
+    }
+
+    public static void mappingFinished() {
+        Operation operation = CURRENT.get();
+        if (operation != null && operation.mappingDepth > 0 && --operation.mappingDepth == 0) {
+            operation.event.mappingTime += System.nanoTime() - operation.mappingStart;
+        }
+    }
+
+    static void queryStarted() {
+        Operation operation = CURRENT.get();
+        if (operation != null) {
+            operation.queryStart = System.nanoTime();
+        }
+    }
+
+    static void queryFinished() {
+        Operation operation = CURRENT.get();
+        if (operation != null && operation.queryStart != 0) {
+            operation.event.dbTime += System.nanoTime() - operation.queryStart;
+            operation.queryStart = 0;
+        }
+    }
+
+    private static long idArgument(Object[] args) {
+        return args.length > 0 && args[0] instanceof Long id ? id : -1;
+    }
+
+    private static final class Operation {
+
+        private final UserOperationEvent event = new UserOperationEvent();
+        private int mappingDepth;
+        private long mappingStart;
+        private long queryStart;
+    }
+}
@@ -0,0 +1,196 @@
+package com.dhanyait.userapi.repository;
+
+import com.dhanyait.userapi.dto.UpsertStatus;
+import com.dhanyait.userapi.dto.UserDto;
+import com.dhanyait.userapi.dto.UserField;
+import com.dhanyait.userapi.entity.User;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Heap-only {@link UserStore}.
+ * <p>
+ * Users are kept in a {@link ConcurrentHashMap} keyed by id, with a second map
+ * from email to id enforcing uniqueness the same way the {@code users.email}
+ * unique constraint does. Updates of a single user run inside
+ * {@link ConcurrentHashMap#compute}, so they only lock the bin holding that id;
+ * email ownership is claimed with {@code putIfAbsent}. Entities are copied on
+ * the way in and out, mirroring detached JPA entities.
+ */
+@Repository
+@ConditionalOnProperty(name = "user.store.engine", havingValue = "memory")
+public class InMemoryUserStore implements UserStore {
+
+    private final ConcurrentHashMap<Long, User> users = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Long> idsByEmail = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Override
+    public Optional<User> findById(Long id) {
+        return Optional.ofNullable(users.get(id)).map(InMemoryUserStore::copy);
+    }
+
+    @Override
+    public List<User> findAllById(Collection<Long> ids) {
+        return ids.stream()
+                .map(users::get)
+                .filter(Objects::nonNull)
+                .map(InMemoryUserStore::copy)
+                .toList();
+    }
+
+    @Override
+    public List<User> findAll() {
+        return users.values().stream()
+                .sorted(Comparator.comparing(User::getId))
+                .map(InMemoryUserStore::copy)
+                .toList();
+    }
+
+    @Override
+    public List<Map<String, Object>> findAllFields(Set<UserField> fields) {
+        return users.values().stream()
+                .sorted(Comparator.comparing(User::getId))
+                .map(user -> toMap(user, fields))
+                .toList();
+    }
+
+    @Override
+    public Optional<Map<String, Object>> findFieldsById(Long id, Set<UserField> fields) {
+        return Optional.ofNullable(users.get(id)).map(user -> toMap(user, fields));
+    }
+
+    @Override
+    public boolean existsByEmail(String email) {
+        return idsByEmail.containsKey(email);
+    }
+
+    @Override
+    public User save(User user) {
+        Long id = user.getId() != null ? user.getId() : sequence.incrementAndGet();
+        User saved = users.compute(id, (key, current) -> {
+            User next = copy(user);
+            next.setId(key);
+            claimEmail(next.getEmail(), key);
+            if (current == null) {
+                next.prePersist();
+            } else {
+                next.setCreatedAt(current.getCreatedAt());
+                next.preUpdate();
+                if (!current.getEmail().equals(next.getEmail())) {
+                    idsByEmail.remove(current.getEmail(), key);
+                }
+            }
+            return next;
+        });
+        return copy(saved);
+    }
+
+    @Override
+    public UpsertResult upsertByEmail(User user) {
+        while (true) {
+            Long id = idsByEmail.get(user.getEmail());
+            if (id == null) {
+                long newId = sequence.incrementAndGet();
+                if (idsByEmail.putIfAbsent(user.getEmail(), newId) == null) {
+                    User created = copy(user);
+                    created.setId(newId);
+                    created.prePersist();
+                    users.put(newId, created);
+                    return new UpsertResult(copy(created), UpsertStatus.CREATED);
+                }
+                continue;
+            }
+            UpsertStatus[] status = new UpsertStatus[1];
+            User upserted = users.computeIfPresent(id, (key, current) -> {
+                if (!current.getEmail().equals(user.getEmail())) {
+                    // The email moved to another user after the lookup; leave this one alone
+                    return current;
+                }
+                if (current.getFirstName().equals(user.getFirstName())
+                        && current.getLastName().equals(user.getLastName())) {
+                    status[0] = UpsertStatus.UNCHANGED;
+                    return current;
+                }
+                User next = copy(current);
+                next.setFirstName(user.getFirstName());
+                next.setLastName(user.getLastName());
+                next.preUpdate();
+                status[0] = UpsertStatus.UPDATED;
+                return next;
+            });
+            // Absent while the owner is being inserted or deleted, or no longer the owner;
+            // look the email up again
+            if (upserted != null && status[0] != null) {
+                return new UpsertResult(copy(upserted), status[0]);
+            }
+        }
+    }
+
+    @Override
+    public boolean deleteById(Long id) {
+        boolean[] deleted = new boolean[1];
+        users.computeIfPresent(id, (key, current) -> {
+            idsByEmail.remove(current.getEmail(), key);
+            deleted[0] = true;
+            return null;
+        });
+        return deleted[0];
+    }
+
+    @Override
+    public Set<String> findExistingEmails(Collection<String> emails) {
+        return emails.stream().filter(idsByEmail::containsKey).collect(Collectors.toSet());
+    }
+
+    @Override
+    public List<User> saveAll(List<User> users) {
+        return users.stream().map(this::save).toList();
+    }
+
+    private void claimEmail(String email, Long id) {
+        Long owner = idsByEmail.putIfAbsent(email, id);
+        if (owner != null && !owner.equals(id)) {
+            throw new DataIntegrityViolationException("Duplicate email: " + email);
+        }
+    }
+
+    private static Map<String, Object> toMap(User user, Set<UserField> fields) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (UserField field : fields) {
+            row.put(field.getProperty(), switch (field) {
+                case ID -> user.getId();
+                case FIRST_NAME -> user.getFirstName();
+                case LAST_NAME -> user.getLastName();
+                case EMAIL -> user.getEmail();
+                case CREATED_AT -> user.getCreatedAt();
+                case UPDATED_AT -> user.getUpdatedAt();
+            });
+            if (field == UserField.ID) {
+                row.put(UserDto.ID_STR, user.getId().toString());
+            }
+        }
+        return row;
+    }
+
+    private static User copy(User source) {
+        User copy = new User(source.getFirstName(), source.getLastName(), source.getEmail());
+        copy.setId(source.getId());
+        copy.setCreatedAt(source.getCreatedAt());
+        copy.setUpdatedAt(source.getUpdatedAt());
+        return copy;
+    }
+}
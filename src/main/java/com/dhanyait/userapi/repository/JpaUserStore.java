@@ -0,0 +1,186 @@
+package com.dhanyait.userapi.repository;
+
+import com.dhanyait.userapi.dto.UpsertStatus;
+import com.dhanyait.userapi.dto.UserField;
+import com.dhanyait.userapi.entity.User;
+import com.dhanyait.userapi.id.SnowflakeIdGenerator;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+@Repository
+@ConditionalOnProperty(name = "user.store.engine", havingValue = "jpa", matchIfMissing = true)
+public class JpaUserStore implements UserStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(JpaUserStore.class);
+
+    private static final int REBUILD_PAGE_SIZE = 10_000;
+
+    private final UserRepository userRepository;
+    private final int nodeId;
+    private MappedEmailIndex emailIndex;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public JpaUserStore(UserRepository userRepository, ObjectProvider<MappedEmailIndex> emailIndex,
+                        @Value("${user.id.node-id:0}") int nodeId) {
+        this.userRepository = userRepository;
+        this.emailIndex = emailIndex.getIfAvailable();
+        this.nodeId = nodeId;
+    }
+
+    /**
+     * Keeps an email index reopened after a clean shutdown when the table still has as
+     * many users as the index covers and none newer than it has seen; otherwise (first
+     * boot, a crash, a restore, another writer) rebuilds it from the table. The index
+     * only sees this instance's writes, so a rebuild switches it off when the table
+     * holds users minted by another node.
+     */
+    @PostConstruct
+    void loadEmailIndex() {
+        if (emailIndex == null) {
+            return;
+        }
+        if (emailIndex.isReopened() && emailIndex.size() == userRepository.count()
+                && userRepository.findMaxId() <= emailIndex.highWaterId()) {
+            logger.info("Email index matches the table; reusing it for {} users", emailIndex.size());
+            return;
+        }
+        logger.info("Rebuilding email index");
+        emailIndex.clear();
+        long afterId = 0;
+        List<UserRepository.UserEmail> page;
+        do {
+            page = userRepository.findEmailsAfter(afterId, PageRequest.ofSize(REBUILD_PAGE_SIZE));
+            for (UserRepository.UserEmail row : page) {
+                if (row.getId() >= SnowflakeIdGenerator.MIN_ID && SnowflakeIdGenerator.nodeOf(row.getId()) != nodeId) {
+                    logger.warn("User {} was created by node {}; the email index needs a single writer and is "
+                            + "disabled, uniqueness checks go to the database", row.getId(),
+                            SnowflakeIdGenerator.nodeOf(row.getId()));
+                    emailIndex.clear();
+                    emailIndex = null;
+                    return;
+                }
+                emailIndex.onInsert(row.getEmail(), row.getId());
+                afterId = row.getId();
+            }
+        } while (page.size() == REBUILD_PAGE_SIZE);
+        logger.info("Email index covers {} users", emailIndex.size());
+    }
+
+    @Override
+    public Optional<User> findById(Long id) {
+        return userRepository.findById(id);
+    }
+
+    @Override
+    public List<User> findAllById(Collection<Long> ids) {
+        return userRepository.findAllById(ids);
+    }
+
+    @Override
+    public List<User> findAll() {
+        return userRepository.findAll();
+    }
+
+    @Override
+    public List<Map<String, Object>> findAllFields(Set<UserField> fields) {
+        return userRepository.findAllFields(fields);
+    }
+
+    @Override
+    public Optional<Map<String, Object>> findFieldsById(Long id, Set<UserField> fields) {
+        return userRepository.findFieldsById(id, fields);
+    }
+
+    @Override
+    public boolean existsByEmail(String email) {
+        if (emailIndex != null && !emailIndex.mightContain(email)) {
+            return false;
+        }
+        return userRepository.existsByEmail(email);
+    }
+
+    @Override
+    public User save(User user) {
+        boolean isNew = user.getId() == null;
+        User saved = userRepository.save(user);
+        if (emailIndex != null) {
+            // Recorded eagerly: a rolled-back insert only leaves a harmless false positive
+            if (isNew) {
+                emailIndex.onInsert(saved.getEmail(), saved.getId());
+            } else {
+                emailIndex.onUpdate(saved.getEmail(), saved.getId());
+            }
+        }
+        return saved;
+    }
+
+    @Override
+    public UpsertResult upsertByEmail(User user) {
+        UpsertResult result = userRepository.upsertByEmail(user);
+        if (emailIndex != null && result.status() == UpsertStatus.CREATED) {
+            emailIndex.onInsert(result.user().getEmail(), result.user().getId());
+        }
+        return result;
+    }
+
+    @Override
+    public boolean deleteById(Long id) {
+        Optional<User> user = userRepository.findById(id);
+        user.ifPresent(found -> {
+            userRepository.delete(found);
+            if (emailIndex != null) {
+                // Dropped only after commit: removing it early could let a duplicate through on rollback
+                afterCommit(() -> emailIndex.onDelete(found.getEmail(), found.getId()));
+            }
+        });
+        return user.isPresent();
+    }
+
+    @Override
+    public Set<String> findExistingEmails(Collection<String> emails) {
+        return userRepository.findExistingEmails(emails);
+    }
+
+    @Override
+    public List<User> saveAll(List<User> users) {
+        List<User> saved = new ArrayList<>(users.size());
+        for (User user : users) {
+            saved.add(save(user));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return saved;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
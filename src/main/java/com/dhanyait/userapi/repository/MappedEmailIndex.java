@@ -0,0 +1,374 @@
+package com.dhanyait.userapi.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Off-heap index of normalized email hash to user id, kept in a memory-mapped file.
+ * <p>
+ * The table uses open addressing with linear probing; each slot holds the 64-bit
+ * hash and the owning id. It answers "might this email exist?": a miss is
+ * definitive, a hit only means the database has to confirm. Entries left behind
+ * by an email change therefore only cost an extra lookup, never a wrong answer.
+ * <p>
+ * A clean shutdown marks the file clean, and the next start reopens it as it is;
+ * {@link JpaUserStore} still checks it against the table and rebuilds it after a crash
+ * or when the table moved on. It sees the writes of this instance alone, so it is only
+ * valid while this instance is the table's single writer.
+ */
+@Component
+@ConditionalOnExpression("${user.email-index.enabled:false} and '${user.store.engine:jpa}' == 'jpa'")
+public class MappedEmailIndex implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(MappedEmailIndex.class);
+
+    private static final int MAGIC = 0x55534549; // "USEI"
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 64;
+    private static final int SLOT_SIZE = 16;
+    private static final int MAX_CAPACITY = 1 << 26;
+    private static final long TOMBSTONE = -1L;
+
+    private static final int MAGIC_OFFSET = 0;
+    private static final int VERSION_OFFSET = 4;
+    private static final int CAPACITY_OFFSET = 8;
+    private static final int USED_OFFSET = 16;
+    private static final int ROWS_OFFSET = 24;
+    private static final int CLEAN_OFFSET = 32;
+    private static final int HIGH_WATER_OFFSET = 40;
+
+    private final Path path;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private FileChannel channel;
+    private FileLock fileLock;
+    private volatile MappedByteBuffer buffer;
+    private int capacity;
+    private int used;
+    private long rows;
+    private long highWaterId;
+    private boolean reopened;
+
+    public MappedEmailIndex(@Value("${user.email-index.path}") Path path,
+                            @Value("${user.email-index.initial-capacity:65536}") int initialCapacity) {
+        this.path = path;
+        try {
+            Files.createDirectories(path.toAbsolutePath().getParent());
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            fileLock = tryLock(channel);
+            if (fileLock == null) {
+                logger.warn("Email index {} is in use elsewhere; uniqueness checks will go to the database", path);
+                channel.close();
+                return;
+            }
+            if (channel.size() >= HEADER_SIZE && map(channel.size()) && buffer.getInt(CLEAN_OFFSET) == 1) {
+                reopened = true;
+                logger.info("Reopened email index {} covering {} users", path, rows);
+            } else {
+                format(channel, tableSizeFor(initialCapacity));
+            }
+            // Dirty until the next clean shutdown, so a crash forces a rebuild
+            buffer.putInt(CLEAN_OFFSET, 0);
+            buffer.force();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open email index " + path, e);
+        }
+    }
+
+    /**
+     * False when another process (or application context) holds the file, or once the
+     * index is closed; every lookup then reports a possible match so callers fall back
+     * to the database.
+     */
+    public boolean isActive() {
+        return buffer != null;
+    }
+
+    /**
+     * True when the file was left by a clean shutdown and its entries were kept; the
+     * caller still has to check them against the table before trusting them.
+     */
+    public boolean isReopened() {
+        return reopened;
+    }
+
+    /**
+     * Normalizes an email the way the index compares them and returns its 64-bit hash.
+     * Never returns 0, which marks an empty slot.
+     */
+    private static long hash(String email) {
+        String normalized = email.trim().toLowerCase(Locale.ROOT);
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < normalized.length(); i++) {
+            h ^= normalized.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        // murmur3 finalizer spreads FNV's weak low bits across the table
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h == 0 ? 1 : h;
+    }
+
+    /**
+     * Number of users the index currently covers.
+     */
+    public long size() {
+        lock.readLock().lock();
+        try {
+            return rows;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Largest id ever inserted, for telling whether the table gained users the index
+     * never saw.
+     */
+    public long highWaterId() {
+        lock.readLock().lock();
+        try {
+            return highWaterId;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean mightContain(String email) {
+        long h = hash(email);
+        lock.readLock().lock();
+        try {
+            if (buffer == null) {
+                return true;
+            }
+            int mask = capacity - 1;
+            for (int slot = (int) h & mask; ; slot = (slot + 1) & mask) {
+                long slotHash = buffer.getLong(slotOffset(slot));
+                if (slotHash == 0) {
+                    return false;
+                }
+                if (slotHash == h && buffer.getLong(slotOffset(slot) + 8) != TOMBSTONE) {
+                    return true;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void onInsert(String email, long id) {
+        write(() -> {
+            put(hash(email), id);
+            rows++;
+            highWaterId = Math.max(highWaterId, id);
+        });
+    }
+
+    public void onUpdate(String email, long id) {
+        write(() -> put(hash(email), id));
+    }
+
+    public void onDelete(String email, long id) {
+        write(() -> {
+            long h = hash(email);
+            int mask = capacity - 1;
+            for (int slot = (int) h & mask; ; slot = (slot + 1) & mask) {
+                int offset = slotOffset(slot);
+                long slotHash = buffer.getLong(offset);
+                if (slotHash == 0) {
+                    break;
+                }
+                if (slotHash == h && buffer.getLong(offset + 8) == id) {
+                    buffer.putLong(offset + 8, TOMBSTONE);
+                    rows--;
+                    break;
+                }
+            }
+        });
+    }
+
+    /**
+     * Empties the table before a rebuild from the database.
+     */
+    public void clear() {
+        write(() -> {
+            try {
+                format(channel, capacity);
+                reopened = false;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not reset email index " + path, e);
+            }
+        });
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (buffer == null) {
+                return;
+            }
+            buffer.putInt(CLEAN_OFFSET, 1);
+            buffer.force();
+            buffer = null;
+            fileLock.release();
+            channel.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void write(Runnable mutation) {
+        lock.writeLock().lock();
+        try {
+            if (buffer == null) {
+                return;
+            }
+            mutation.run();
+            buffer.putInt(USED_OFFSET, used);
+            buffer.putLong(ROWS_OFFSET, rows);
+            buffer.putLong(HIGH_WATER_OFFSET, highWaterId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void put(long h, long id) {
+        if (used + 1 > capacity / 2) {
+            resize();
+        }
+        int mask = capacity - 1;
+        int reuse = -1;
+        for (int slot = (int) h & mask; ; slot = (slot + 1) & mask) {
+            int offset = slotOffset(slot);
+            long slotHash = buffer.getLong(offset);
+            if (slotHash == 0) {
+                int target = reuse >= 0 ? reuse : offset;
+                if (reuse < 0) {
+                    used++;
+                }
+                buffer.putLong(target + 8, id);
+                buffer.putLong(target, h);
+                return;
+            }
+            long slotId = buffer.getLong(offset + 8);
+            if (slotHash == h && slotId == id) {
+                return;
+            }
+            if (slotId == TOMBSTONE && reuse < 0) {
+                reuse = offset;
+            }
+        }
+    }
+
+    private void resize() {
+        int live = 0;
+        for (int slot = 0; slot < capacity; slot++) {
+            int offset = slotOffset(slot);
+            if (buffer.getLong(offset) != 0 && buffer.getLong(offset + 8) != TOMBSTONE) {
+                live++;
+            }
+        }
+        int newCapacity = live + 1 > capacity / 4 ? Math.min(capacity * 2, MAX_CAPACITY) : capacity;
+        if (live + 1 > newCapacity / 2) {
+            throw new IllegalStateException("Email index " + path + " is full");
+        }
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel tmpChannel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer old = buffer;
+            int oldCapacity = capacity;
+            long oldRows = rows;
+            long oldHighWaterId = highWaterId;
+            format(tmpChannel, newCapacity);
+            rows = oldRows;
+            highWaterId = oldHighWaterId;
+            for (int slot = 0; slot < oldCapacity; slot++) {
+                int offset = HEADER_SIZE + slot * SLOT_SIZE;
+                long slotHash = old.getLong(offset);
+                long slotId = old.getLong(offset + 8);
+                if (slotHash != 0 && slotId != TOMBSTONE) {
+                    put(slotHash, slotId);
+                }
+            }
+            buffer.putLong(ROWS_OFFSET, rows);
+            buffer.putLong(HIGH_WATER_OFFSET, highWaterId);
+            buffer.force();
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            fileLock.release();
+            channel.close();
+            channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            fileLock = tryLock(channel);
+            if (!map(channel.size())) {
+                throw new IllegalStateException("Email index " + path + " was damaged while resizing");
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not resize email index " + path, e);
+        }
+        logger.info("Resized email index to {} slots ({} live entries)", capacity, live);
+    }
+
+    private boolean map(long size) throws IOException {
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        capacity = buffer.getInt(CAPACITY_OFFSET);
+        if (buffer.getInt(MAGIC_OFFSET) != MAGIC || buffer.getInt(VERSION_OFFSET) != VERSION
+                || Integer.bitCount(capacity) != 1 || size != HEADER_SIZE + (long) capacity * SLOT_SIZE) {
+            return false;
+        }
+        used = buffer.getInt(USED_OFFSET);
+        rows = buffer.getLong(ROWS_OFFSET);
+        highWaterId = buffer.getLong(HIGH_WATER_OFFSET);
+        return true;
+    }
+
+    private void format(FileChannel target, int newCapacity) throws IOException {
+        long size = HEADER_SIZE + (long) newCapacity * SLOT_SIZE;
+        target.truncate(0);
+        buffer = target.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        buffer.putInt(MAGIC_OFFSET, MAGIC);
+        buffer.putInt(VERSION_OFFSET, VERSION);
+        buffer.putInt(CAPACITY_OFFSET, newCapacity);
+        capacity = newCapacity;
+        used = 0;
+        rows = 0;
+        highWaterId = 0;
+    }
+
+    private static FileLock tryLock(FileChannel channel) throws IOException {
+        try {
+            return channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            return null;
+        }
+    }
+
+    private static int slotOffset(int slot) {
+        return HEADER_SIZE + slot * SLOT_SIZE;
+    }
+
+    private static int tableSizeFor(int requested) {
+        int size = Integer.highestOneBit(Math.max(requested, 16) - 1) << 1;
+        return Math.min(size, MAX_CAPACITY);
+    }
+}
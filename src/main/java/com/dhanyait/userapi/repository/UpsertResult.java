@@ -0,0 +1,10 @@
+package com.dhanyait.userapi.repository;
+
+import com.dhanyait.userapi.dto.UpsertStatus;
+import com.dhanyait.userapi.entity.User;
+
+/**
+ * The row as it stands after {@link UserStore#upsertByEmail}, and what the upsert did to it.
+ */
+public record UpsertResult(User user, UpsertStatus status) {
+}
@@ -0,0 +1,22 @@
+package com.dhanyait.userapi.repository;
+
+import com.dhanyait.userapi.dto.UserField;
+import com.dhanyait.userapi.entity.User;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Queries that select only the requested columns, keyed by {@link UserField#getProperty()},
+ * and the native upsert behind {@link UserStore#upsertByEmail}.
+ */
+public interface UserRepositoryCustom {
+
+    List<Map<String, Object>> findAllFields(Set<UserField> fields);
+
+    Optional<Map<String, Object>> findFieldsById(Long id, Set<UserField> fields);
+
+    UpsertResult upsertByEmail(User user);
+}
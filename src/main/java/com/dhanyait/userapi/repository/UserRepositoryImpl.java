@@ -0,0 +1,292 @@
+package com.dhanyait.userapi.repository;
+
+import com.dhanyait.userapi.dto.UpsertStatus;
+import com.dhanyait.userapi.dto.UserDto;
+import com.dhanyait.userapi.dto.UserField;
+import com.dhanyait.userapi.entity.User;
+import com.dhanyait.userapi.id.SnowflakeIdGenerator;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.jdbc.spi.JdbcCoordinator;
+import org.hibernate.engine.jdbc.spi.SqlExceptionHelper;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+class UserRepositoryImpl implements UserRepositoryCustom {
+
+    /** Attempts before an upsert that keeps losing races gives up. */
+    private static final int MAX_UPSERT_ATTEMPTS = 3;
+
+    /** SQLState of a unique constraint violation, on H2 and PostgreSQL alike. */
+    private static final String UNIQUE_VIOLATION = "23505";
+
+    /**
+     * Inserts, or updates the names only when they differ; {@code FINAL TABLE} yields
+     * the inserted or updated row and nothing for a match that was left alone. Only an
+     * inserted row carries the freshly generated id, which is what {@code inserted} checks.
+     */
+    private static final UpsertStatement H2_UPSERT = new UpsertStatement("""
+            SELECT id, first_name, last_name, email, created_at, updated_at, id = CAST(? AS BIGINT) AS inserted
+            FROM FINAL TABLE (
+              MERGE INTO users u
+              USING (VALUES (CAST(? AS BIGINT), CAST(? AS VARCHAR(255)), CAST(? AS VARCHAR(255)),
+                             CAST(? AS VARCHAR(255)), CAST(? AS TIMESTAMP(6))))
+                    s(id, email, first_name, last_name, now)
+              ON u.email = s.email
+              WHEN MATCHED AND (u.first_name <> s.first_name OR u.last_name <> s.last_name) THEN
+                UPDATE SET first_name = s.first_name, last_name = s.last_name, updated_at = s.now
+              WHEN NOT MATCHED THEN
+                INSERT (id, first_name, last_name, email, created_at, updated_at)
+                VALUES (s.id, s.first_name, s.last_name, s.email, s.now, s.now))
+            """, List.of(Parameter.ID, Parameter.ID, Parameter.EMAIL, Parameter.FIRST_NAME, Parameter.LAST_NAME,
+            Parameter.NOW));
+
+    /**
+     * Same contract as {@link #H2_UPSERT}: the {@code WHERE} on the update makes an
+     * unchanged conflict return no row, and {@code xmax} is only zero on a row this
+     * statement inserted.
+     */
+    private static final UpsertStatement POSTGRES_UPSERT = new UpsertStatement("""
+            INSERT INTO users (id, email, first_name, last_name, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?)
+            ON CONFLICT (email) DO UPDATE
+              SET first_name = EXCLUDED.first_name, last_name = EXCLUDED.last_name, updated_at = EXCLUDED.updated_at
+              WHERE users.first_name <> EXCLUDED.first_name OR users.last_name <> EXCLUDED.last_name
+            RETURNING id, first_name, last_name, email, created_at, updated_at, (xmax = 0) AS inserted
+            """, List.of(Parameter.ID, Parameter.EMAIL, Parameter.FIRST_NAME, Parameter.LAST_NAME, Parameter.NOW,
+            Parameter.NOW));
+
+    private static final String SELECT_BY_EMAIL = """
+            SELECT id, first_name, last_name, email, created_at, updated_at FROM users WHERE email = ?
+            """;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private volatile Optional<UpsertStatement> upsertStatement;
+    private volatile SnowflakeIdGenerator idGenerator;
+
+    @Override
+    public List<Map<String, Object>> findAllFields(Set<UserField> fields) {
+        return entityManager.createQuery(selectFields(fields, null)).getResultList().stream()
+                .map(tuple -> toMap(tuple, fields))
+                .toList();
+    }
+
+    @Override
+    public Optional<Map<String, Object>> findFieldsById(Long id, Set<UserField> fields) {
+        return entityManager.createQuery(selectFields(fields, id)).getResultList().stream()
+                .findFirst()
+                .map(tuple -> toMap(tuple, fields));
+    }
+
+    /**
+     * Upserts in one statement on H2 and PostgreSQL. The statement reports whether it
+     * inserted the row; a returned row it did not insert was updated, and no row means
+     * nothing changed, in which case the row is read back as it stands.
+     * <p>
+     * Two H2 transactions upserting the same new email can both take the insert branch;
+     * the later one fails on the unique constraint and is run again, now as an update
+     * or no-op. An unchanged row deleted before it could be read back is upserted again
+     * as well. After {@link #MAX_UPSERT_ATTEMPTS} such rounds the upsert fails with
+     * {@link ConcurrencyFailureException}.
+     * <p>
+     * Statements go through Hibernate's statement preparer, so they are inspected and
+     * counted like any other, but their errors are handled here: an exception from a
+     * Hibernate query would mark the whole transaction for rollback. Rows are read
+     * straight from the result set, never from the persistence context, which a
+     * native update leaves stale.
+     * <p>
+     * The id for a possible insert comes from the entity's own generator, so it is in
+     * sequence with ids assigned by {@code persist}; an update just leaves a gap.
+     * Other databases fall back to a lookup followed by a persist or an update.
+     */
+    @Override
+    public UpsertResult upsertByEmail(User user) {
+        UpsertStatement statement = upsertStatement().orElse(null);
+        if (statement == null) {
+            return upsertByLookup(user);
+        }
+        // The statement bypasses the persistence context; pending changes must reach the table first
+        entityManager.flush();
+        SQLException lastRace = null;
+        for (int attempt = 0; attempt < MAX_UPSERT_ATTEMPTS; attempt++) {
+            try {
+                Optional<UpsertResult> result = upsert(statement, user);
+                if (result.isPresent()) {
+                    return result.get();
+                }
+            } catch (SQLException e) {
+                if (!UNIQUE_VIOLATION.equals(e.getSQLState())) {
+                    throw sqlExceptionHelper().convert(e, "Could not upsert user", statement.sql());
+                }
+                lastRace = e;
+            }
+        }
+        throw new ConcurrencyFailureException("Upsert of " + user.getEmail() + " lost to concurrent changes "
+                + MAX_UPSERT_ATTEMPTS + " times; try again", lastRace);
+    }
+
+    private Optional<UpsertResult> upsert(UpsertStatement statement, User user) throws SQLException {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        long id = idGenerator().nextId();
+        Optional<UpsertResult> upserted = queryRow(statement.sql(), ps -> statement.bind(ps, id, user, now),
+                (rs, rowNum) -> new UpsertResult(toUser(rs),
+                        rs.getBoolean("inserted") ? UpsertStatus.CREATED : UpsertStatus.UPDATED));
+        if (upserted.isPresent()) {
+            return upserted;
+        }
+        return queryRow(SELECT_BY_EMAIL, ps -> ps.setString(1, user.getEmail()),
+                (rs, rowNum) -> new UpsertResult(toUser(rs), UpsertStatus.UNCHANGED));
+    }
+
+    /**
+     * Runs {@code sql} on the session's connection and maps its first row, if any.
+     */
+    private <T> Optional<T> queryRow(String sql, PreparedStatementSetter parameters, RowMapper<T> mapper)
+            throws SQLException {
+        JdbcCoordinator jdbc = entityManager.unwrap(SharedSessionContractImplementor.class).getJdbcCoordinator();
+        PreparedStatement statement = jdbc.getStatementPreparer().prepareStatement(sql);
+        try {
+            parameters.setValues(statement);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() ? Optional.of(mapper.mapRow(rs, 0)) : Optional.empty();
+            }
+        } finally {
+            jdbc.getLogicalConnection().getResourceRegistry().release(statement);
+            jdbc.afterStatementExecution();
+        }
+    }
+
+    private static User toUser(ResultSet rs) throws SQLException {
+        User user = new User(rs.getString("first_name"), rs.getString("last_name"), rs.getString("email"));
+        user.setId(rs.getLong("id"));
+        user.setCreatedAt(rs.getObject("created_at", LocalDateTime.class));
+        user.setUpdatedAt(rs.getObject("updated_at", LocalDateTime.class));
+        return user;
+    }
+
+    private UpsertResult upsertByLookup(User user) {
+        User existing = findByEmail(user.getEmail()).orElse(null);
+        if (existing == null) {
+            entityManager.persist(user);
+            return new UpsertResult(user, UpsertStatus.CREATED);
+        }
+        if (existing.getFirstName().equals(user.getFirstName()) && existing.getLastName().equals(user.getLastName())) {
+            return new UpsertResult(existing, UpsertStatus.UNCHANGED);
+        }
+        existing.setFirstName(user.getFirstName());
+        existing.setLastName(user.getLastName());
+        entityManager.flush();
+        return new UpsertResult(existing, UpsertStatus.UPDATED);
+    }
+
+    private Optional<User> findByEmail(String email) {
+        return entityManager.createQuery("SELECT u FROM User u WHERE u.email = :email", User.class)
+                .setParameter("email", email)
+                .getResultList()
+                .stream()
+                .findFirst();
+    }
+
+    private SnowflakeIdGenerator idGenerator() {
+        SnowflakeIdGenerator generator = idGenerator;
+        if (generator == null) {
+            generator = (SnowflakeIdGenerator) sessionFactory()
+                    .getMappingMetamodel()
+                    .getEntityDescriptor(User.class)
+                    .getGenerator();
+            idGenerator = generator;
+        }
+        return generator;
+    }
+
+    private Optional<UpsertStatement> upsertStatement() {
+        Optional<UpsertStatement> statement = upsertStatement;
+        if (statement == null) {
+            Dialect dialect = sessionFactory().getJdbcServices().getDialect();
+            statement = Optional.ofNullable(dialect instanceof H2Dialect ? H2_UPSERT
+                    : dialect instanceof PostgreSQLDialect ? POSTGRES_UPSERT
+                    : null);
+            upsertStatement = statement;
+        }
+        return statement;
+    }
+
+    private SqlExceptionHelper sqlExceptionHelper() {
+        return sessionFactory().getJdbcServices().getSqlExceptionHelper();
+    }
+
+    private SessionFactoryImplementor sessionFactory() {
+        return entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class);
+    }
+
+    private CriteriaQuery<Tuple> selectFields(Set<UserField> fields, Long id) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<User> user = query.from(User.class);
+        query.multiselect(fields.stream()
+                .<Selection<?>>map(field -> user.get(field.getProperty()).alias(field.getProperty()))
+                .toList());
+        if (id != null) {
+            query.where(cb.equal(user.get("id"), id));
+        }
+        return query;
+    }
+
+    private static Map<String, Object> toMap(Tuple tuple, Set<UserField> fields) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (UserField field : fields) {
+            row.put(field.getProperty(), tuple.get(field.getProperty()));
+            if (field == UserField.ID) {
+                row.put(UserDto.ID_STR, tuple.get(field.getProperty()).toString());
+            }
+        }
+        return row;
+    }
+
+    private enum Parameter {
+        ID, EMAIL, FIRST_NAME, LAST_NAME, NOW
+    }
+
+    /**
+     * An upsert statement and the values its {@code ?} placeholders take, in order.
+     */
+    private record UpsertStatement(String sql, List<Parameter> parameters) {
+
+        void bind(PreparedStatement statement, long id, User user, LocalDateTime now) throws SQLException {
+            for (int i = 0; i < parameters.size(); i++) {
+                int index = i + 1;
+                switch (parameters.get(i)) {
+                    case ID -> statement.setLong(index, id);
+                    case EMAIL -> statement.setString(index, user.getEmail());
+                    case FIRST_NAME -> statement.setString(index, user.getFirstName());
+                    case LAST_NAME -> statement.setString(index, user.getLastName());
+                    case NOW -> statement.setObject(index, now);
+                }
+            }
+        }
+    }
+}
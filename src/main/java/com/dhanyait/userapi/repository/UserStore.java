@@ -0,0 +1,68 @@
+package com.dhanyait.userapi.repository;
+
+import com.dhanyait.userapi.dto.UserField;
+import com.dhanyait.userapi.entity.User;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Storage engine behind {@link com.dhanyait.userapi.service.UserService}.
+ * <p>
+ * The engine is selected with the {@code user.store.engine} property:
+ * {@code jpa} (default) delegates to {@link UserRepository}, {@code memory}
+ * keeps all users on the heap for latency-critical edge nodes.
+ */
+public interface UserStore {
+
+    Optional<User> findById(Long id);
+
+    /**
+     * Loads every user whose id is in {@code ids} with a single query; missing ids
+     * are simply absent from the result.
+     */
+    List<User> findAllById(Collection<Long> ids);
+
+    List<User> findAll();
+
+    /**
+     * Reads only the requested columns; each map is keyed by {@link UserField#getProperty()}
+     * and iterates in the order of {@code fields}.
+     */
+    List<Map<String, Object>> findAllFields(Set<UserField> fields);
+
+    Optional<Map<String, Object>> findFieldsById(Long id, Set<UserField> fields);
+
+    boolean existsByEmail(String email);
+
+    User save(User user);
+
+    /**
+     * @return whether a user with {@code id} existed and was deleted
+     */
+    boolean deleteById(Long id);
+
+    /**
+     * Inserts {@code user}, or updates the names of the user that already has its email,
+     * atomically with respect to concurrent upserts of the same email. Timestamps follow
+     * {@link User#prePersist()} and {@link User#preUpdate()}; an unchanged user keeps its
+     * {@code updatedAt}.
+     */
+    UpsertResult upsertByEmail(User user);
+
+    /**
+     * Returns the subset of {@code emails} that already belong to a user.
+     */
+    Set<String> findExistingEmails(Collection<String> emails);
+
+    /**
+     * Persists a batch of new users and detaches them, so bulk callers keep a
+     * constant footprint however many batches they write in one session.
+     *
+     * @return the saved users, in order, with their generated ids
+     */
+    List<User> saveAll(List<User> users);
+}
@@ -0,0 +1,380 @@
+package com.dhanyait.userapi.service;
+
+import com.dhanyait.userapi.deadline.RequestDeadline;
+import com.dhanyait.userapi.dto.UserDto;
+import com.dhanyait.userapi.exception.BulkheadFullException;
+import com.dhanyait.userapi.exception.DeadlineExceededException;
+import com.dhanyait.userapi.exception.UserNotFoundException;
+import com.dhanyait.userapi.tracing.TailSamplingSpanProcessor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Coalesces concurrent {@code getUserById} calls into one {@code IN} query.
+ * <p>
+ * A lookup that arrives while no other is in flight is not batched: it calls
+ * {@link UserService#getUserById} on the caller's thread straight away. Once lookups
+ * overlap, the next id opens a window of {@code user.batch-loader.window}; every id
+ * requested until it closes, or until {@code user.batch-loader.max-batch-size}
+ * distinct ids are waiting, is loaded by a single {@link UserService#getUsersByIds}
+ * call, or by {@code getUserById} when only one id is waiting. Each caller's future
+ * completes with its own user or a {@link UserNotFoundException}.
+ * <p>
+ * Batches run on a small pool of their own, so a slow query never holds up the next
+ * window. At most {@code user.batch-loader.queue-capacity} batches wait for a thread;
+ * the callers of any further batch fail at once with {@link BulkheadFullException}.
+ * <p>
+ * Meters: {@code user.batch.size} (distinct ids per query, tagged with what issued
+ * it: {@code direct}, {@code window} or {@code size}), {@code user.batch.query} and
+ * {@code user.batch.requests}.
+ * <p>
+ * When tracing is on, each batch runs in a {@code UserBatchLoader.batch} span whose
+ * parent is the span of the request that opened it, so that trace shows the service
+ * and JDBC spans of the shared query.
+ * <p>
+ * Callers whose {@link RequestDeadline} passes while their id waits are failed with
+ * {@link DeadlineExceededException} and left out of the query (counted in
+ * {@code user.deadline.abandoned} with {@code stage=batch}); a batch with no caller
+ * left is not run. The query runs under the latest deadline of the callers it serves.
+ * {@link #get} never waits longer than {@code user.batch-loader.max-wait}, deadline
+ * or not.
+ * <p>
+ * On shutdown the open window is drained: its callers, and any that arrive later, are
+ * failed straight away instead of being left waiting for a scheduler that is gone.
+ */
+@Component
+@ConditionalOnProperty(name = "user.batch-loader.enabled", havingValue = "true")
+public class UserBatchLoader implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserBatchLoader.class);
+
+    private final UserService userService;
+    private final long windowNanos;
+    private final long maxWaitNanos;
+    private final int maxBatchSize;
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService batchExecutor;
+    private final DistributionSummary directBatchSize;
+    private final DistributionSummary windowBatchSize;
+    private final DistributionSummary fullBatchSize;
+    private final Timer queryTimer;
+    private final Counter requests;
+    private final Counter abandoned;
+    private final Tracer tracer;
+
+    private final Object lock = new Object();
+    private Map<Long, List<Caller>> pending = new HashMap<>();
+    private ScheduledFuture<?> windowTimer;
+    private Span windowParent;
+    private int inFlight;
+    private boolean closed;
+
+    @Autowired
+    public UserBatchLoader(UserService userService, MeterRegistry meterRegistry, ObjectProvider<Tracer> tracer,
+                           @Value("${user.batch-loader.window:2ms}") Duration window,
+                           @Value("${user.batch-loader.max-batch-size:128}") int maxBatchSize,
+                           @Value("${user.batch-loader.concurrent-batches:4}") int concurrentBatches,
+                           @Value("${user.batch-loader.queue-capacity:16}") int queueCapacity,
+                           @Value("${user.batch-loader.max-wait:5s}") Duration maxWait) {
+        this(userService, meterRegistry, tracer.getIfAvailable(() -> Tracer.NOOP), window, maxBatchSize,
+                concurrentBatches, queueCapacity, maxWait);
+    }
+
+    UserBatchLoader(UserService userService, MeterRegistry meterRegistry, Duration window, int maxBatchSize,
+                    int concurrentBatches, int queueCapacity, Duration maxWait) {
+        this(userService, meterRegistry, Tracer.NOOP, window, maxBatchSize, concurrentBatches, queueCapacity, maxWait);
+    }
+
+    private UserBatchLoader(UserService userService, MeterRegistry meterRegistry, Tracer tracer, Duration window,
+                            int maxBatchSize, int concurrentBatches, int queueCapacity, Duration maxWait) {
+        this.userService = userService;
+        this.tracer = tracer;
+        this.windowNanos = window.toNanos();
+        this.maxWaitNanos = maxWait.toNanos();
+        this.maxBatchSize = maxBatchSize;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(threadFactory("user-batch-window"));
+        this.batchExecutor = new ThreadPoolExecutor(concurrentBatches, concurrentBatches, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory("user-batch-"));
+        this.directBatchSize = batchSize(meterRegistry, "direct");
+        this.windowBatchSize = batchSize(meterRegistry, "window");
+        this.fullBatchSize = batchSize(meterRegistry, "size");
+        this.queryTimer = Timer.builder("user.batch.query")
+                .description("Time to load one batch of users")
+                .register(meterRegistry);
+        this.requests = Counter.builder("user.batch.requests")
+                .description("Id lookups submitted to the batch loader")
+                .register(meterRegistry);
+        this.abandoned = RequestDeadline.abandoned(meterRegistry, "batch");
+        logger.info("Batching user lookups every {} or {} ids", window, maxBatchSize);
+    }
+
+    /**
+     * Loads {@code id}, at once if nothing else is in flight and otherwise with the next
+     * batch, waiting for that until the caller's deadline or {@code max-wait} at the latest.
+     */
+    public UserDto get(Long id) {
+        CompletableFuture<UserDto> future = load(id);
+        RequestDeadline deadline = RequestDeadline.current();
+        long waitNanos = deadline != null ? Math.min(maxWaitNanos, deadline.remainingNanos()) : maxWaitNanos;
+        try {
+            return future.get(waitNanos, TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Could not load user " + id, e.getCause());
+        } catch (TimeoutException e) {
+            future.cancel(false);
+            if (deadline != null && deadline.isExpired()) {
+                abandoned.increment();
+                throw new DeadlineExceededException("Request deadline passed while waiting for its batch");
+            }
+            throw new DeadlineExceededException("Gave up on the batch for user " + id + " after "
+                    + Duration.ofNanos(maxWaitNanos));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(false);
+            throw new IllegalStateException("Interrupted while loading user " + id, e);
+        }
+    }
+
+    /**
+     * Returns a future for {@code id}. A lookup that finds nothing else in flight runs on
+     * the calling thread and the future is complete on return.
+     */
+    public CompletableFuture<UserDto> load(Long id) {
+        CompletableFuture<UserDto> future = new CompletableFuture<>();
+        Map<Long, List<Caller>> full = null;
+        Span parent = null;
+        boolean direct;
+        requests.increment();
+        synchronized (lock) {
+            if (closed) {
+                future.completeExceptionally(shutDown());
+                return future;
+            }
+            direct = inFlight++ == 0;
+            if (!direct) {
+                if (pending.isEmpty()) {
+                    windowParent = tracer.currentSpan();
+                }
+                pending.computeIfAbsent(id, key -> new ArrayList<>(1)).add(new Caller(future, RequestDeadline.current()));
+                if (pending.size() >= maxBatchSize) {
+                    parent = windowParent;
+                    full = takePending();
+                } else if (windowTimer == null) {
+                    windowTimer = scheduler.schedule(this::closeWindow, windowNanos, TimeUnit.NANOSECONDS);
+                }
+            }
+        }
+        future.whenComplete((user, e) -> finished());
+        if (direct) {
+            loadNow(id, future);
+        } else if (full != null) {
+            dispatch(full, fullBatchSize, parent);
+        }
+        return future;
+    }
+
+    @Override
+    public void destroy() {
+        Map<Long, List<Caller>> unserved;
+        synchronized (lock) {
+            closed = true;
+            unserved = takePending();
+        }
+        scheduler.shutdownNow();
+        fail(unserved, shutDown());
+        // Batches already dispatched still run; the context closes after them
+        batchExecutor.shutdown();
+        try {
+            if (!batchExecutor.awaitTermination(maxWaitNanos, TimeUnit.NANOSECONDS)) {
+                logger.warn("User batches still running after {}", Duration.ofNanos(maxWaitNanos));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void finished() {
+        synchronized (lock) {
+            inFlight--;
+        }
+    }
+
+    private void loadNow(Long id, CompletableFuture<UserDto> future) {
+        directBatchSize.record(1);
+        try {
+            future.complete(queryTimer.record(() -> userService.getUserById(id)));
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+    }
+
+    private void closeWindow() {
+        Map<Long, List<Caller>> batch;
+        Span parent;
+        synchronized (lock) {
+            parent = windowParent;
+            batch = takePending();
+        }
+        if (!batch.isEmpty()) {
+            dispatch(batch, windowBatchSize, parent);
+        }
+    }
+
+    private Map<Long, List<Caller>> takePending() {
+        Map<Long, List<Caller>> batch = pending;
+        pending = new HashMap<>();
+        windowParent = null;
+        if (windowTimer != null) {
+            windowTimer.cancel(false);
+            windowTimer = null;
+        }
+        return batch;
+    }
+
+    private void dispatch(Map<Long, List<Caller>> batch, DistributionSummary batchSize, Span parent) {
+        batchSize.record(batch.size());
+        try {
+            batchExecutor.execute(() -> run(batch, parent));
+        } catch (RejectedExecutionException e) {
+            fail(batch, batchExecutor.isShutdown() ? shutDown()
+                    : new BulkheadFullException("Too many user batches queued, try again shortly"));
+        }
+    }
+
+    private void run(Map<Long, List<Caller>> batch, Span parent) {
+        RequestDeadline deadline = dropExpired(batch);
+        if (batch.isEmpty()) {
+            return;
+        }
+        Map<Long, UserDto> users;
+        Span span = (parent != null ? tracer.nextSpan(parent) : tracer.nextSpan())
+                .name("UserBatchLoader.batch")
+                .tag("batch.size", batch.size())
+                .start();
+        try (Tracer.SpanInScope scope = tracer.withSpan(span);
+             RequestDeadline.Scope deadlineScope = RequestDeadline.open(deadline)) {
+            users = queryTimer.recordCallable(() -> fetch(batch.keySet()));
+        } catch (Exception e) {
+            span.tag(TailSamplingSpanProcessor.ERROR_TAG, e.getClass().getSimpleName()).error(e);
+            fail(batch, e);
+            return;
+        } finally {
+            span.end();
+        }
+        batch.forEach((id, callers) -> {
+            UserDto user = users.get(id);
+            for (Caller caller : callers) {
+                if (user != null) {
+                    caller.future().complete(user);
+                } else {
+                    caller.future().completeExceptionally(new UserNotFoundException("User not found with id: " + id));
+                }
+            }
+        });
+    }
+
+    /**
+     * Loads a lone id through {@code getUserById}, so it is recorded under that name.
+     */
+    private Map<Long, UserDto> fetch(Set<Long> ids) {
+        if (ids.size() > 1) {
+            return userService.getUsersByIds(ids);
+        }
+        Long id = ids.iterator().next();
+        try {
+            return Map.of(id, userService.getUserById(id));
+        } catch (UserNotFoundException e) {
+            return Map.of();
+        }
+    }
+
+    private static void fail(Map<Long, List<Caller>> batch, Throwable cause) {
+        batch.values().forEach(callers -> callers.forEach(caller -> caller.future().completeExceptionally(cause)));
+    }
+
+    private static IllegalStateException shutDown() {
+        return new IllegalStateException("User batch loader is shut down");
+    }
+
+    /**
+     * Fails and removes the callers whose deadline has passed, then returns the latest
+     * deadline among those left ({@code null} if any of them has none).
+     */
+    private RequestDeadline dropExpired(Map<Long, List<Caller>> batch) {
+        RequestDeadline latest = null;
+        boolean first = true;
+        for (var ids = batch.values().iterator(); ids.hasNext(); ) {
+            List<Caller> callers = ids.next();
+            for (var it = callers.iterator(); it.hasNext(); ) {
+                Caller caller = it.next();
+                if (caller.deadline() != null && caller.deadline().isExpired()) {
+                    abandoned.increment();
+                    caller.future().completeExceptionally(
+                            new DeadlineExceededException("Request deadline passed while waiting for its batch"));
+                    it.remove();
+                } else {
+                    latest = first ? caller.deadline() : RequestDeadline.latest(latest, caller.deadline());
+                    first = false;
+                }
+            }
+            if (callers.isEmpty()) {
+                ids.remove();
+            }
+        }
+        return latest;
+    }
+
+    private record Caller(CompletableFuture<UserDto> future, RequestDeadline deadline) {
+    }
+
+    private static DistributionSummary batchSize(MeterRegistry meterRegistry, String trigger) {
+        return DistributionSummary.builder("user.batch.size")
+                .description("Distinct ids loaded per query")
+                .tag("trigger", trigger)
+                .register(meterRegistry);
+    }
+
+    private static ThreadFactory threadFactory(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix.endsWith("-") ? prefix + count.incrementAndGet() : prefix);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,28 @@
+package com.dhanyait.userapi.service;
+
+import com.dhanyait.userapi.dto.UserDto;
+
+/**
+ * Published inside the transaction of every user mutation; listeners that need
+ * committed state use {@code @TransactionalEventListener}.
+ *
+ * @param user the user after the change, or {@code null} for {@link Type#DELETED}
+ */
+public record UserChangedEvent(Type type, long userId, UserDto user) {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    public static UserChangedEvent created(UserDto user) {
+        return new UserChangedEvent(Type.CREATED, user.getId(), user);
+    }
+
+    public static UserChangedEvent updated(UserDto user) {
+        return new UserChangedEvent(Type.UPDATED, user.getId(), user);
+    }
+
+    public static UserChangedEvent deleted(long userId) {
+        return new UserChangedEvent(Type.DELETED, userId, null);
+    }
+}
@@ -0,0 +1,300 @@
+package com.dhanyait.userapi.service;
+
+import com.dhanyait.userapi.bulkhead.Bulkhead;
+import com.dhanyait.userapi.bulkhead.BulkheadType;
+import com.dhanyait.userapi.dto.ImportReport;
+import com.dhanyait.userapi.dto.UserDto;
+import com.dhanyait.userapi.entity.User;
+import com.dhanyait.userapi.exception.InvalidRequestException;
+import com.dhanyait.userapi.mapper.UserMapper;
+import com.dhanyait.userapi.repository.UserStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Streams a CSV or NDJSON upload into the user store in fixed-size chunks.
+ * <p>
+ * Each chunk is validated against the {@link UserDto} constraints, deduplicated
+ * within the chunk and against the store, and written in its own transaction.
+ * After every commit the number of consumed rows is saved to a checkpoint file
+ * named after the import id, so re-sending the same upload with the same id
+ * resumes after the last committed chunk. Rejected rows are appended to a
+ * sibling {@code .rejects.csv} file once their chunk has committed.
+ */
+@Service
+public class UserImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserImportService.class);
+
+    private static final Pattern IMPORT_ID = Pattern.compile("[A-Za-z0-9][A-Za-z0-9._-]{0,63}");
+
+    public enum Format {
+        CSV, NDJSON;
+
+        public static Format of(MediaType contentType) {
+            return MediaType.parseMediaType("text/csv").isCompatibleWith(contentType) ? CSV : NDJSON;
+        }
+    }
+
+    private final UserStore userStore;
+    private final UserMapper userMapper;
+    private final Validator validator;
+    private final ObjectReader userDtoReader;
+    private final TransactionOperations transactionOperations;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Path workDir;
+    private final int chunkSize;
+
+    @Autowired
+    public UserImportService(UserStore userStore, UserMapper userMapper, Validator validator,
+                             ObjectMapper objectMapper, TransactionOperations transactionOperations,
+                             ApplicationEventPublisher eventPublisher,
+                             @Value("${user.import.work-dir}") Path workDir,
+                             @Value("${user.import.chunk-size:1000}") int chunkSize) {
+        this.userStore = userStore;
+        this.userMapper = userMapper;
+        this.validator = validator;
+        this.userDtoReader = objectMapper.readerFor(UserDto.class);
+        this.transactionOperations = transactionOperations;
+        this.eventPublisher = eventPublisher;
+        this.workDir = workDir;
+        this.chunkSize = chunkSize;
+    }
+
+    @Bulkhead(BulkheadType.BULK)
+    public ImportReport importUsers(InputStream input, Format format, String importId) throws IOException {
+        String id = importId != null ? importId : UUID.randomUUID().toString();
+        if (!IMPORT_ID.matcher(id).matches()) {
+            throw new InvalidRequestException("Invalid import id: " + id);
+        }
+        Files.createDirectories(workDir);
+        Path checkpoint = workDir.resolve(id + ".checkpoint");
+        Path rejectFile = workDir.resolve(id + ".rejects.csv");
+        long committedRows = Files.exists(checkpoint) ? Long.parseLong(Files.readString(checkpoint).trim()) : 0;
+        if (committedRows > 0) {
+            logger.info("Resuming import {} after row {}", id, committedRows);
+        } else {
+            logger.info("Starting import {}", id);
+        }
+
+        ImportProgress progress = new ImportProgress(committedRows);
+        boolean newRejectFile = !Files.exists(rejectFile);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+             BufferedWriter rejects = Files.newBufferedWriter(rejectFile, StandardCharsets.UTF_8,
+                     StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            if (newRejectFile) {
+                rejects.write("row,reason,line");
+                rejects.newLine();
+            }
+            RowParser parser = format == Format.CSV ? csvParser(reader.readLine()) : this::parseJson;
+            List<Row> chunk = new ArrayList<>(chunkSize);
+            long rowNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || ++rowNumber <= committedRows) {
+                    continue;
+                }
+                chunk.add(new Row(rowNumber, line));
+                if (chunk.size() == chunkSize) {
+                    writeChunk(id, chunk, parser, progress, rejects, checkpoint);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                writeChunk(id, chunk, parser, progress, rejects, checkpoint);
+            }
+        }
+
+        logger.info("Finished import {}: {} imported, {} rejected", id, progress.imported, progress.rejected);
+        return new ImportReport(id, progress.processed, progress.imported, progress.rejected,
+                progress.committedRows, rejectFile.toString());
+    }
+
+    private void writeChunk(String importId, List<Row> chunk, RowParser parser, ImportProgress progress,
+                            BufferedWriter rejects, Path checkpoint) throws IOException {
+        List<String> rejectLines = new ArrayList<>();
+        Map<String, Row> accepted = new LinkedHashMap<>();
+        for (Row row : chunk) {
+            UserDto userDto;
+            try {
+                userDto = parser.parse(row.line());
+            } catch (IOException | RuntimeException e) {
+                rejectLines.add(rejectLine(row, "Malformed row"));
+                continue;
+            }
+            Set<ConstraintViolation<UserDto>> violations = validator.validate(userDto);
+            if (!violations.isEmpty()) {
+                String reason = violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining("; "));
+                rejectLines.add(rejectLine(row, reason));
+            } else if (accepted.containsKey(userDto.getEmail())) {
+                rejectLines.add(rejectLine(row, "Duplicate email in import: " + userDto.getEmail()));
+            } else {
+                accepted.put(userDto.getEmail(), row.withUser(toNewUser(userDto)));
+            }
+        }
+
+        int imported = transactionOperations.execute(status -> {
+            Set<String> existing = accepted.isEmpty() ? Set.of() : userStore.findExistingEmails(accepted.keySet());
+            List<User> users = new ArrayList<>(accepted.size());
+            accepted.forEach((email, row) -> {
+                if (existing.contains(email)) {
+                    rejectLines.add(rejectLine(row, "User already exists with email: " + email));
+                } else {
+                    users.add(row.user());
+                }
+            });
+            for (User saved : userStore.saveAll(users)) {
+                eventPublisher.publishEvent(UserChangedEvent.created(userMapper.toDto(saved)));
+            }
+            return users.size();
+        });
+
+        for (String rejectLine : rejectLines) {
+            rejects.write(rejectLine);
+            rejects.newLine();
+        }
+        rejects.flush();
+        progress.processed += chunk.size();
+        progress.imported += imported;
+        progress.rejected += rejectLines.size();
+        progress.committedRows = chunk.get(chunk.size() - 1).number();
+        saveCheckpoint(checkpoint, progress.committedRows);
+        chunk.clear();
+
+        logger.info("Import {}: committed through row {} ({} imported, {} rejected so far)",
+                importId, progress.committedRows, progress.imported, progress.rejected);
+    }
+
+    private User toNewUser(UserDto userDto) {
+        User user = userMapper.toEntity(userDto);
+        user.setId(null);
+        return user;
+    }
+
+    private UserDto parseJson(String line) throws IOException {
+        return userDtoReader.readValue(line);
+    }
+
+    private static RowParser csvParser(String header) {
+        if (header == null) {
+            throw new InvalidRequestException("CSV upload is empty");
+        }
+        List<String> columns = splitCsv(header).stream()
+                .map(column -> column.trim().toLowerCase(Locale.ROOT))
+                .toList();
+        int firstName = columns.indexOf("firstname");
+        int lastName = columns.indexOf("lastname");
+        int email = columns.indexOf("email");
+        if (firstName < 0 || lastName < 0 || email < 0) {
+            throw new InvalidRequestException("CSV header must contain firstName, lastName and email");
+        }
+        return line -> {
+            List<String> fields = splitCsv(line);
+            return new UserDto(field(fields, firstName), field(fields, lastName), field(fields, email));
+        };
+    }
+
+    private static String field(List<String> fields, int index) {
+        return index < fields.size() ? fields.get(index).trim() : null;
+    }
+
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static String rejectLine(Row row, String reason) {
+        return row.number() + "," + quote(reason) + "," + quote(row.line());
+    }
+
+    private static String quote(String value) {
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static void saveCheckpoint(Path checkpoint, long committedRows) throws IOException {
+        Path tmp = checkpoint.resolveSibling(checkpoint.getFileName() + ".tmp");
+        Files.writeString(tmp, Long.toString(committedRows));
+        Files.move(tmp, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @FunctionalInterface
+    private interface RowParser {
+        UserDto parse(String line) throws IOException;
+    }
+
+    private record Row(long number, String line, User user) {
+        Row(long number, String line) {
+            this(number, line, null);
+        }
+
+        Row withUser(User user) {
+            return new Row(number, line, user);
+        }
+    }
+
+    private static final class ImportProgress {
+        private long processed;
+        private long imported;
+        private long rejected;
+        private long committedRows;
+
+        private ImportProgress(long committedRows) {
+            this.committedRows = committedRows;
+        }
+    }
+}
@@ -1,18 +1,31 @@
 package com.dhanyait.userapi.service;
 
+import com.dhanyait.userapi.bulkhead.Bulkhead;
+import com.dhanyait.userapi.bulkhead.BulkheadType;
+import com.dhanyait.userapi.dto.UpsertStatus;
 import com.dhanyait.userapi.dto.UserDto;
+import com.dhanyait.userapi.dto.UserField;
+import com.dhanyait.userapi.dto.UserUpsertResponse;
 import com.dhanyait.userapi.entity.User;
+import com.dhanyait.userapi.exception.InvalidRequestException;
 import com.dhanyait.userapi.exception.UserAlreadyExistsException;
 import com.dhanyait.userapi.exception.UserNotFoundException;
 import com.dhanyait.userapi.mapper.UserMapper;
-import com.dhanyait.userapi.repository.UserRepository;
+import com.dhanyait.userapi.repository.UpsertResult;
+import com.dhanyait.userapi.repository.UserStore;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -20,71 +33,159 @@ public class UserService {
 
     private static final Logger logger = LoggerFactory.getLogger(UserService.class);
 
-    private final UserRepository userRepository;
+    private final UserStore userStore;
     private final UserMapper userMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public UserService(UserRepository userRepository, UserMapper userMapper) {
-        this.userRepository = userRepository;
+    public UserService(UserStore userStore, UserMapper userMapper, ApplicationEventPublisher eventPublisher) {
+        this.userStore = userStore;
         this.userMapper = userMapper;
+        this.eventPublisher = eventPublisher;
     }
 
+    @Bulkhead(BulkheadType.POINT_READ)
     @Transactional(readOnly = true)
     public UserDto getUserById(Long id) {
         logger.debug("Fetching user with id: {}", id);
-        User user = userRepository.findById(id)
+        User user = userStore.findById(id)
                 .orElseThrow(() -> new UserNotFoundException("User not found with id: " + id));
         return userMapper.toDto(user);
     }
 
+    /**
+     * Looks up several users in one query, keyed by id; ids that do not exist are absent.
+     */
+    @Bulkhead(BulkheadType.POINT_READ)
+    @Transactional(readOnly = true)
+    public Map<Long, UserDto> getUsersByIds(Collection<Long> ids) {
+        logger.debug("Fetching {} users by id", ids.size());
+        return userStore.findAllById(ids).stream()
+                .collect(Collectors.toMap(User::getId, userMapper::toDto));
+    }
+
+    @Bulkhead(BulkheadType.SCAN_READ)
     @Transactional(readOnly = true)
     public List<UserDto> getAllUsers() {
         logger.debug("Fetching all users");
-        List<User> users = userRepository.findAll();
+        List<User> users = userStore.findAll();
         return userMapper.toDtoList(users);
     }
 
+    @Bulkhead(BulkheadType.POINT_READ)
+    @Transactional(readOnly = true)
+    public Map<String, Object> getUserFieldsById(Long id, Set<UserField> fields) {
+        logger.debug("Fetching fields {} of user with id: {}", fields, id);
+        return userStore.findFieldsById(id, fields)
+                .orElseThrow(() -> new UserNotFoundException("User not found with id: " + id));
+    }
+
+    @Bulkhead(BulkheadType.SCAN_READ)
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getAllUserFields(Set<UserField> fields) {
+        logger.debug("Fetching fields {} of all users", fields);
+        return userStore.findAllFields(fields);
+    }
+
+    @Bulkhead(BulkheadType.WRITE)
     public UserDto createUser(UserDto userDto) {
         logger.debug("Creating new user with email: {}", userDto.getEmail());
 
-        if (userRepository.existsByEmail(userDto.getEmail())) {
+        if (userStore.existsByEmail(userDto.getEmail())) {
             throw new UserAlreadyExistsException("User already exists with email: " + userDto.getEmail());
         }
 
         User user = userMapper.toEntity(userDto);
-        User savedUser = userRepository.save(user);
+        User savedUser = userStore.save(user);
+
+        UserDto savedDto = userMapper.toDto(savedUser);
+        eventPublisher.publishEvent(UserChangedEvent.created(savedDto));
 
         logger.info("Successfully created user with id: {}", savedUser.getId());
-        return userMapper.toDto(savedUser);
+        return savedDto;
     }
 
+    @Bulkhead(BulkheadType.WRITE)
     public UserDto updateUser(Long id, UserDto userDto) {
         logger.debug("Updating user with id: {}", id);
 
-        User existingUser = userRepository.findById(id)
+        User existingUser = userStore.findById(id)
                 .orElseThrow(() -> new UserNotFoundException("User not found with id: " + id));
 
         // Check if email is being changed and if it already exists
         if (!existingUser.getEmail().equals(userDto.getEmail()) &&
-                userRepository.existsByEmail(userDto.getEmail())) {
+                userStore.existsByEmail(userDto.getEmail())) {
             throw new UserAlreadyExistsException("User already exists with email: " + userDto.getEmail());
         }
 
         userMapper.updateEntityFromDto(userDto, existingUser);
-        User updatedUser = userRepository.save(existingUser);
+        User updatedUser = userStore.save(existingUser);
+
+        UserDto updatedDto = userMapper.toDto(updatedUser);
+        eventPublisher.publishEvent(UserChangedEvent.updated(updatedDto));
 
         logger.info("Successfully updated user with id: {}", id);
-        return userMapper.toDto(updatedUser);
+        return updatedDto;
     }
 
+    /**
+     * Creates the user with {@code email}, or brings its names in line with
+     * {@code userDto}, in one atomic store call. Repeating the call is harmless: it
+     * reports {@link UpsertStatus#UNCHANGED} and publishes no event.
+     */
+    @Bulkhead(BulkheadType.WRITE)
+    public UserUpsertResponse upsertUserByEmail(String email, UserDto userDto) {
+        logger.debug("Upserting user with email: {}", email);
+
+        if (!email.equals(userDto.getEmail())) {
+            throw new InvalidRequestException("Email in body does not match path: " + userDto.getEmail());
+        }
+
+        return upsert(userDto);
+    }
+
+    /**
+     * Upserts every user in one transaction, one statement each; the responses follow
+     * the order of {@code users}. Each email may appear only once, since later entries
+     * would otherwise overwrite earlier ones within the same request.
+     */
+    @Bulkhead(BulkheadType.BULK)
+    public List<UserUpsertResponse> upsertUsersByEmail(List<UserDto> users) {
+        logger.debug("Upserting {} users by email", users.size());
+        Set<String> emails = new HashSet<>();
+        for (UserDto user : users) {
+            if (!emails.add(user.getEmail())) {
+                throw new InvalidRequestException("Duplicate email in request: " + user.getEmail());
+            }
+        }
+        return users.stream().map(this::upsert).toList();
+    }
+
+    @Bulkhead(BulkheadType.WRITE)
     public void deleteUser(Long id) {
         logger.debug("Deleting user with id: {}", id);
 
-        if (!userRepository.existsById(id)) {
+        if (!userStore.deleteById(id)) {
             throw new UserNotFoundException("User not found with id: " + id);
         }
 
-        userRepository.deleteById(id);
+        eventPublisher.publishEvent(UserChangedEvent.deleted(id));
         logger.info("Successfully deleted user with id: {}", id);
     }
+
+    private UserUpsertResponse upsert(UserDto userDto) {
+        User user = userMapper.toEntity(userDto);
+        user.setId(null);
+        UpsertResult result = userStore.upsertByEmail(user);
+
+        UserDto upsertedDto = userMapper.toDto(result.user());
+        switch (result.status()) {
+            case CREATED -> eventPublisher.publishEvent(UserChangedEvent.created(upsertedDto));
+            case UPDATED -> eventPublisher.publishEvent(UserChangedEvent.updated(upsertedDto));
+            case UNCHANGED -> { }
+        }
+
+        logger.info("Upserted user with id: {} ({})", upsertedDto.getId(), result.status());
+        return new UserUpsertResponse(result.status(), upsertedDto);
+    }
 }
@@ -0,0 +1,193 @@
+package com.dhanyait.userapi.tracing;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.ReadWriteSpan;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps whole traces that were slow or failed and drops the rest, deciding when the
+ * trace's local root span ends instead of when it starts.
+ * <p>
+ * Spans are recorded for every request; each finished child is parked under its trace
+ * id until the local root (a span without a parent, or with a remote one) finishes.
+ * The trace is then forwarded to {@code delegate}, normally the exporting
+ * {@code BatchSpanProcessor}, when the root took at least {@code slowThreshold}, when
+ * the root has an {@code ERROR} status or recorded a server error, when any span is
+ * tagged {@link #ERROR_TAG}, or for a {@code baselineRatio} share of ordinary traces so
+ * there is something to compare against. Children finishing after their kept root,
+ * such as async work, are forwarded directly.
+ * <p>
+ * A {@link ReadableSpan} only exposes its status through {@code toSpanData()}, which
+ * copies the whole span, so that is done once per trace for the root; children report
+ * failure through the tag instead.
+ * <p>
+ * Memory is bounded: at most {@code maxBufferedTraces} traces are parked, and traces
+ * whose root has not finished within {@code maxTraceAge} are dropped.
+ */
+public class TailSamplingSpanProcessor implements SpanProcessor {
+
+    /**
+     * Span tag marking a failed span; its value is the exception's simple class name.
+     */
+    public static final String ERROR_TAG = "error";
+
+    private static final AttributeKey<String> OUTCOME = AttributeKey.stringKey("outcome");
+    private static final AttributeKey<String> ERROR = AttributeKey.stringKey(ERROR_TAG);
+    private static final long SWEEP_INTERVAL_NANOS = Duration.ofSeconds(1).toNanos();
+
+    private final SpanProcessor delegate;
+    private final long slowThresholdNanos;
+    private final double baselineRatio;
+    private final int maxBufferedTraces;
+    private final long maxTraceAgeNanos;
+
+    private final ConcurrentHashMap<String, PendingTrace> pending = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Long> kept = new ConcurrentHashMap<>();
+    private final AtomicLong lastSweep = new AtomicLong(System.nanoTime());
+    private final LongAdder keptTraces = new LongAdder();
+    private final LongAdder droppedTraces = new LongAdder();
+    private final LongAdder overflowSpans = new LongAdder();
+
+    public TailSamplingSpanProcessor(SpanProcessor delegate, Duration slowThreshold, double baselineRatio,
+                                     int maxBufferedTraces, Duration maxTraceAge) {
+        this.delegate = delegate;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.baselineRatio = baselineRatio;
+        this.maxBufferedTraces = maxBufferedTraces;
+        this.maxTraceAgeNanos = maxTraceAge.toNanos();
+    }
+
+    @Override
+    public void onStart(Context parentContext, ReadWriteSpan span) {
+        delegate.onStart(parentContext, span);
+    }
+
+    @Override
+    public boolean isStartRequired() {
+        return delegate.isStartRequired();
+    }
+
+    @Override
+    public void onEnd(ReadableSpan span) {
+        long now = System.nanoTime();
+        String traceId = span.getSpanContext().getTraceId();
+        SpanContext parent = span.getParentSpanContext();
+        boolean error = span.getAttribute(ERROR) != null;
+
+        if (parent.isValid() && !parent.isRemote()) {
+            if (kept.containsKey(traceId)) {
+                delegate.onEnd(span);
+            } else {
+                park(traceId, span, error, now);
+            }
+        } else {
+            PendingTrace trace = pending.remove(traceId);
+            boolean keep = span.getLatencyNanos() >= slowThresholdNanos
+                    || error
+                    || "SERVER_ERROR".equals(span.getAttribute(OUTCOME))
+                    || trace != null && trace.error
+                    || span.toSpanData().getStatus().getStatusCode() == StatusCode.ERROR
+                    || baselineRatio > 0 && ThreadLocalRandom.current().nextDouble() < baselineRatio;
+            if (keep) {
+                kept.put(traceId, now);
+                if (trace != null) {
+                    trace.spans().forEach(delegate::onEnd);
+                }
+                delegate.onEnd(span);
+                keptTraces.increment();
+            } else {
+                droppedTraces.increment();
+            }
+        }
+        if (now - lastSweep.get() > SWEEP_INTERVAL_NANOS) {
+            sweep(now);
+        }
+    }
+
+    @Override
+    public boolean isEndRequired() {
+        return true;
+    }
+
+    @Override
+    public CompletableResultCode forceFlush() {
+        return delegate.forceFlush();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        pending.clear();
+        return delegate.shutdown();
+    }
+
+    public long keptTraces() {
+        return keptTraces.sum();
+    }
+
+    public long droppedTraces() {
+        return droppedTraces.sum();
+    }
+
+    /**
+     * Spans discarded because {@code maxBufferedTraces} traces were already waiting.
+     */
+    public long overflowSpans() {
+        return overflowSpans.sum();
+    }
+
+    private void park(String traceId, ReadableSpan span, boolean error, long now) {
+        PendingTrace trace = pending.get(traceId);
+        if (trace == null) {
+            if (pending.size() >= maxBufferedTraces) {
+                overflowSpans.increment();
+                return;
+            }
+            trace = pending.computeIfAbsent(traceId, id -> new PendingTrace(now));
+        }
+        trace.add(span, error);
+    }
+
+    private void sweep(long now) {
+        long last = lastSweep.get();
+        if (now - last <= SWEEP_INTERVAL_NANOS || !lastSweep.compareAndSet(last, now)) {
+            return;
+        }
+        pending.values().removeIf(trace -> now - trace.created > maxTraceAgeNanos);
+        kept.values().removeIf(keptAt -> now - keptAt > maxTraceAgeNanos);
+    }
+
+    private static final class PendingTrace {
+
+        private final long created;
+        private final List<ReadableSpan> spans = new ArrayList<>(8);
+        private volatile boolean error;
+
+        private PendingTrace(long created) {
+            this.created = created;
+        }
+
+        private synchronized void add(ReadableSpan span, boolean error) {
+            spans.add(span);
+            if (error) {
+                this.error = true;
+            }
+        }
+
+        private synchronized List<ReadableSpan> spans() {
+            return new ArrayList<>(spans);
+        }
+    }
+}
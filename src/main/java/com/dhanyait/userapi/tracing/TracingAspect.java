@@ -0,0 +1,69 @@
+package com.dhanyait.userapi.tracing;
+
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Opens a span around each public {@code UserService} method and each
+ * {@code UserMapper} call, named {@code Type.method} and nested under the current span
+ * (the HTTP server span for requests). Spans are created through Micrometer's
+ * {@link Tracer} rather than an {@code Observation}, so no timer is registered per
+ * call; when tracing is off every advice is a reference check and {@code proceed()}.
+ * <p>
+ * Ordered outside the bulkhead and JFR aspects, so a service span includes any wait
+ * for a compartment permit.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 50)
+public class TracingAspect {
+
+    private final Tracer tracer;
+    private final ConcurrentHashMap<Method, String> spanNames = new ConcurrentHashMap<>();
+
+    public TracingAspect(ObjectProvider<Tracer> tracer) {
+        this.tracer = tracer.getIfAvailable(() -> Tracer.NOOP);
+    }
+
+    @Around("execution(public * com.dhanyait.userapi.service.UserService.*(..))")
+    public Object traceService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace(joinPoint);
+    }
+
+    @Around("execution(* com.dhanyait.userapi.mapper.UserMapper+.*(..))")
+    public Object traceMapper(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace(joinPoint);
+    }
+
+    private Object trace(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (tracer == Tracer.NOOP) {
+            return joinPoint.proceed();
+        }
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Span span = tracer.nextSpan().name(spanNames.computeIfAbsent(method, TracingAspect::spanName)).start();
+        try (Tracer.SpanInScope scope = tracer.withSpan(span)) {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            span.tag(TailSamplingSpanProcessor.ERROR_TAG, e.getClass().getSimpleName()).error(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+
+    private static String spanName(Method method) {
+        String type = method.getDeclaringClass().getSimpleName();
+        return type + "." + method.getName();
+    }
+}
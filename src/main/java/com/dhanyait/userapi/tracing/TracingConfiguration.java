@@ -0,0 +1,56 @@
+package com.dhanyait.userapi.tracing;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.tracing.SpanProcessors;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Puts a {@link TailSamplingSpanProcessor} in front of the span processors Spring Boot
+ * configures, so only slow, failed and baseline traces reach the exporters. The
+ * sampler's decisions are counted in {@code user.tracing.traces} (tagged
+ * {@code decision}: {@code kept}, {@code dropped} or {@code overflow}).
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "user.tracing.tail-sampling.enabled", havingValue = "true")
+public class TracingConfiguration {
+
+    @Bean
+    public TailSamplingSpanProcessor tailSamplingSpanProcessor(
+            ObjectProvider<SpanProcessor> spanProcessors, MeterRegistry meterRegistry,
+            @Value("${user.tracing.tail-sampling.slow-threshold:250ms}") Duration slowThreshold,
+            @Value("${user.tracing.tail-sampling.baseline-ratio:0.01}") double baselineRatio,
+            @Value("${user.tracing.tail-sampling.max-buffered-traces:10000}") int maxBufferedTraces,
+            @Value("${user.tracing.tail-sampling.max-trace-age:30s}") Duration maxTraceAge) {
+        SpanProcessor exporting = SpanProcessor.composite(spanProcessors.orderedStream()
+                .filter(processor -> !(processor instanceof TailSamplingSpanProcessor))
+                .toList());
+        TailSamplingSpanProcessor sampler = new TailSamplingSpanProcessor(exporting, slowThreshold, baselineRatio,
+                maxBufferedTraces, maxTraceAge);
+        decisions(meterRegistry, sampler, "kept", TailSamplingSpanProcessor::keptTraces);
+        decisions(meterRegistry, sampler, "dropped", TailSamplingSpanProcessor::droppedTraces);
+        decisions(meterRegistry, sampler, "overflow", TailSamplingSpanProcessor::overflowSpans);
+        return sampler;
+    }
+
+    @Bean
+    public SpanProcessors spanProcessors(TailSamplingSpanProcessor tailSamplingSpanProcessor) {
+        return SpanProcessors.of(tailSamplingSpanProcessor);
+    }
+
+    private static void decisions(MeterRegistry meterRegistry, TailSamplingSpanProcessor sampler, String decision,
+                                  ToDoubleFunction<TailSamplingSpanProcessor> count) {
+        FunctionCounter.builder("user.tracing.traces", sampler, count)
+                .description("Traces the tail sampler exported or discarded")
+                .tag("decision", decision)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,31 @@
+package com.dhanyait.userapi.tracing;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+
+import java.util.Map;
+
+/**
+ * Records every request and tail-samples the traces only when
+ * {@code management.otlp.tracing.endpoint} is set. Without an exporter nothing would
+ * read the spans, so the sampling probability defaults to 0: trace ids still reach
+ * the logs, but spans are not recorded and the tail sampler is left out. Explicit
+ * settings win, since the defaults are added last.
+ */
+public class TracingEnvironmentPostProcessor implements EnvironmentPostProcessor {
+
+    static final String ENDPOINT = "management.otlp.tracing.endpoint";
+    static final String PROBABILITY = "management.tracing.sampling.probability";
+    static final String TAIL_SAMPLING = "user.tracing.tail-sampling.enabled";
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        String endpoint = environment.getProperty(ENDPOINT);
+        boolean exporting = endpoint != null && !endpoint.isBlank();
+        environment.getPropertySources().addLast(new MapPropertySource("tracingDefaults", Map.of(
+                PROBABILITY, exporting ? "1.0" : "0.0",
+                TAIL_SAMPLING, String.valueOf(exporting))));
+    }
+}
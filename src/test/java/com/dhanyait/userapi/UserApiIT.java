@@ -1,16 +1,21 @@
 package com.dhanyait.userapi;
 
 
+import com.dhanyait.userapi.dto.BulkUpsertRequest;
 import com.dhanyait.userapi.dto.UserDto;
 import com.dhanyait.userapi.entity.User;
 import com.dhanyait.userapi.repository.UserRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.NestedTestConfiguration;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
@@ -18,12 +23,14 @@ import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
+import java.util.List;
+
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static org.assertj.core.api.Assertions.assertThat;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
-@AutoConfigureWebMvc
+@AutoConfigureMockMvc
 @Testcontainers
 @TestPropertySource(properties = {
         "spring.datasource.url=jdbc:h2:mem:testdb",
@@ -176,4 +183,92 @@ class UserApiIT {
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.errors").exists());
     }
+
+    /**
+     * Upserts are one native statement per database; this runs the PostgreSQL one.
+     */
+    @Nested
+    @NestedTestConfiguration(NestedTestConfiguration.EnclosingConfiguration.OVERRIDE)
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+    @AutoConfigureMockMvc
+    @Testcontainers(disabledWithoutDocker = true)
+    class PostgresUpsert {
+
+        @Container
+        static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:13")
+                .withDatabaseName("testdb")
+                .withUsername("test")
+                .withPassword("test");
+
+        @DynamicPropertySource
+        static void postgresProperties(DynamicPropertyRegistry registry) {
+            registry.add("spring.datasource.url", postgres::getJdbcUrl);
+            registry.add("spring.datasource.username", postgres::getUsername);
+            registry.add("spring.datasource.password", postgres::getPassword);
+            registry.add("spring.datasource.driver-class-name", postgres::getDriverClassName);
+            registry.add("spring.jpa.hibernate.ddl-auto", () -> "create-drop");
+        }
+
+        @Autowired
+        private MockMvc postgresMockMvc;
+
+        @Autowired
+        private UserRepository postgresUserRepository;
+
+        @BeforeEach
+        void setUp() {
+            postgresUserRepository.deleteAll();
+        }
+
+        @Test
+        void upsertUserByEmail_ShouldCreateThenSkipThenUpdate() throws Exception {
+            // Given
+            UserDto john = new UserDto("John", "Doe", "john@example.com");
+
+            // When & Then
+            String created = postgresMockMvc.perform(put("/api/users/by-email/john@example.com")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(john)))
+                    .andExpect(status().isCreated())
+                    .andExpect(jsonPath("$.lastName").value("Doe"))
+                    .andReturn().getResponse().getContentAsString();
+            String id = objectMapper.readTree(created).get(UserDto.ID_STR).asText();
+            postgresMockMvc.perform(put("/api/users/by-email/john@example.com")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(john)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.idStr").value(id));
+            postgresMockMvc.perform(put("/api/users/by-email/john@example.com")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(new UserDto("John", "Smith", "john@example.com"))))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.idStr").value(id))
+                    .andExpect(jsonPath("$.lastName").value("Smith"));
+
+            assertThat(postgresUserRepository.count()).isEqualTo(1);
+        }
+
+        @Test
+        void upsertUsersByEmail_ShouldReportStatusPerUser() throws Exception {
+            // Given
+            postgresUserRepository.save(new User("John", "Doe", "john@example.com"));
+            postgresUserRepository.save(new User("Jane", "Smith", "jane@example.com"));
+            BulkUpsertRequest request = new BulkUpsertRequest(List.of(
+                    new UserDto("Jim", "Beam", "jim@example.com"),
+                    new UserDto("John", "Doe", "john@example.com"),
+                    new UserDto("Jane", "Doe", "jane@example.com")));
+
+            // When & Then
+            postgresMockMvc.perform(put("/api/users/by-email")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].status").value("CREATED"))
+                    .andExpect(jsonPath("$[1].status").value("UNCHANGED"))
+                    .andExpect(jsonPath("$[2].status").value("UPDATED"))
+                    .andExpect(jsonPath("$[2].user.lastName").value("Doe"));
+
+            assertThat(postgresUserRepository.count()).isEqualTo(3);
+        }
+    }
 }
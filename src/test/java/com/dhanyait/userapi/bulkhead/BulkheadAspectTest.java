@@ -0,0 +1,119 @@
+package com.dhanyait.userapi.bulkhead;
+
+import com.dhanyait.userapi.deadline.RequestDeadline;
+import com.dhanyait.userapi.exception.BulkheadFullException;
+import com.dhanyait.userapi.exception.DeadlineExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+class BulkheadAspectTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private Workload workload;
+
+    @BeforeEach
+    void setUp() {
+        BulkheadProperties properties = new BulkheadProperties();
+        BulkheadProperties.Compartment write = new BulkheadProperties.Compartment();
+        write.setPoolSize(1);
+        properties.getCompartments().put(BulkheadType.WRITE, write);
+        BulkheadProperties.Compartment bulk = new BulkheadProperties.Compartment();
+        bulk.setMaxConcurrentCalls(1);
+        bulk.setMaxWait(Duration.ofSeconds(30));
+        properties.getCompartments().put(BulkheadType.BULK, bulk);
+
+        AspectJProxyFactory factory = new AspectJProxyFactory(new Workload());
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new BulkheadAspect(properties, meterRegistry));
+        workload = factory.getProxy();
+    }
+
+    @Test
+    void isolate_ShouldExposeBulkheadOnlyInsideTheCall() {
+        // When
+        BulkheadType inside = workload.pointRead();
+
+        // Then
+        assertThat(inside).isEqualTo(BulkheadType.POINT_READ);
+        assertThat(BulkheadAspect.current()).isNull();
+        assertThat(meterRegistry.get("user.bulkhead.active").tag("bulkhead", "point-read").gauge().value()).isZero();
+    }
+
+    @Test
+    void isolate_WhenCompartmentIsFull_ShouldRejectWithoutWaiting() throws Exception {
+        // Given
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> holder = CompletableFuture.runAsync(() -> workload.write(entered, release));
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // When & Then
+        assertThatThrownBy(() -> workload.write(new CountDownLatch(1), new CountDownLatch(0)))
+                .isInstanceOf(BulkheadFullException.class)
+                .hasMessageContaining("write");
+        assertThat(workload.pointRead()).isEqualTo(BulkheadType.POINT_READ);
+        assertThat(meterRegistry.get("user.bulkhead.saturation").tag("bulkhead", "write").gauge().value()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("user.bulkhead.rejected").tag("bulkhead", "write").counter().count()).isEqualTo(1);
+
+        release.countDown();
+        holder.get(5, TimeUnit.SECONDS);
+        assertThat(meterRegistry.get("user.bulkhead.active").tag("bulkhead", "write").gauge().value()).isZero();
+    }
+
+    @Test
+    void isolate_WhenDeadlinePassesWhileWaiting_ShouldGiveUpAtTheDeadline() throws Exception {
+        // Given
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> holder = CompletableFuture.runAsync(() -> workload.bulk(entered, release));
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // When
+        long started = System.nanoTime();
+        try (RequestDeadline.Scope scope = RequestDeadline.open(RequestDeadline.after(Duration.ofMillis(200)))) {
+            assertThatThrownBy(() -> workload.bulk(new CountDownLatch(1), new CountDownLatch(0)))
+                    .isInstanceOf(DeadlineExceededException.class)
+                    .hasMessageContaining("bulk");
+        }
+
+        // Then
+        assertThat(Duration.ofNanos(System.nanoTime() - started)).isBetween(Duration.ofMillis(150), Duration.ofSeconds(5));
+        assertThat(meterRegistry.get("user.deadline.abandoned").tag("stage", "bulkhead").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("user.bulkhead.rejected").tag("bulkhead", "bulk").counter().count()).isZero();
+
+        release.countDown();
+        holder.get(5, TimeUnit.SECONDS);
+    }
+
+    static class Workload {
+
+        @Bulkhead(BulkheadType.POINT_READ)
+        public BulkheadType pointRead() {
+            return BulkheadAspect.current();
+        }
+
+        @Bulkhead(BulkheadType.BULK)
+        public void bulk(CountDownLatch entered, CountDownLatch release) {
+            write(entered, release);
+        }
+
+        @Bulkhead(BulkheadType.WRITE)
+        public void write(CountDownLatch entered, CountDownLatch release) {
+            entered.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
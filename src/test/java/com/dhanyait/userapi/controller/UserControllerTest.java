@@ -1,6 +1,12 @@
 
 package com.dhanyait.userapi.controller;
+import com.dhanyait.userapi.dto.BulkUpsertRequest;
+import com.dhanyait.userapi.dto.UpsertStatus;
 import com.dhanyait.userapi.dto.UserDto;
+import com.dhanyait.userapi.dto.UserField;
+import com.dhanyait.userapi.dto.UserUpsertResponse;
+import com.dhanyait.userapi.exception.BulkheadFullException;
+import com.dhanyait.userapi.exception.DeadlineExceededException;
 import com.dhanyait.userapi.exception.UserNotFoundException;
 import com.dhanyait.userapi.service.UserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -9,13 +15,17 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -68,6 +78,30 @@ class UserControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void getUsers_WhenBulkheadIsFull_ShouldReturn503() throws Exception {
+        // Given
+        when(userService.getAllUsers()).thenThrow(new BulkheadFullException("Too many concurrent scan-read requests"));
+
+        // When & Then
+        mockMvc.perform(get("/api/users"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.status").value(503));
+    }
+
+    @Test
+    void getUser_WhenDeadlinePassed_ShouldReturnGatewayTimeout() throws Exception {
+        // Given
+        when(userService.getUserById(1L))
+                .thenThrow(new DeadlineExceededException("Request deadline passed before the transaction began"));
+
+        // When & Then
+        mockMvc.perform(get("/api/users/1"))
+                .andExpect(status().isGatewayTimeout())
+                .andExpect(jsonPath("$.status").value(504));
+    }
+
     @Test
     void getUsers_ShouldReturnAllUsers() throws Exception {
         // Given
@@ -97,6 +131,21 @@ class UserControllerTest {
                 .andExpect(jsonPath("$.email").value("john.doe@example.com"));
     }
 
+    @Test
+    void createUser_WhenUniqueConstraintFails_ShouldReturn409() throws Exception {
+        // Given
+        UserDto newUserDto = new UserDto("John", "Doe", "john.doe@example.com");
+        when(userService.createUser(any(UserDto.class)))
+                .thenThrow(new DataIntegrityViolationException("Unique index or primary key violation"));
+
+        // When & Then
+        mockMvc.perform(post("/api/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(newUserDto)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.status").value(409));
+    }
+
     @Test
     void createUser_WhenInvalidUser_ShouldReturn400() throws Exception {
         // Given
@@ -108,4 +157,70 @@ class UserControllerTest {
                         .content(objectMapper.writeValueAsString(invalidUser)))
                 .andExpect(status().isBadRequest());
     }
-}
\ No newline at end of file
+
+    @Test
+    void upsertUserByEmail_ShouldReturn201WhenCreatedAnd200Otherwise() throws Exception {
+        // Given
+        UserDto body = new UserDto("John", "Doe", "john.doe@example.com");
+        when(userService.upsertUserByEmail(eq("john.doe@example.com"), any(UserDto.class)))
+                .thenReturn(new UserUpsertResponse(UpsertStatus.CREATED, userDto))
+                .thenReturn(new UserUpsertResponse(UpsertStatus.UNCHANGED, userDto));
+
+        // When & Then
+        mockMvc.perform(put("/api/users/by-email/john.doe@example.com")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(body)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(1));
+        mockMvc.perform(put("/api/users/by-email/john.doe@example.com")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(body)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value("john.doe@example.com"));
+    }
+
+    @Test
+    void upsertUsersByEmail_ShouldReturnStatusPerUser() throws Exception {
+        // Given
+        UserDto jane = new UserDto("Jane", "Smith", "jane@example.com");
+        when(userService.upsertUsersByEmail(anyList())).thenReturn(List.of(
+                new UserUpsertResponse(UpsertStatus.UPDATED, userDto),
+                new UserUpsertResponse(UpsertStatus.CREATED, jane)));
+
+        // When & Then
+        mockMvc.perform(put("/api/users/by-email")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BulkUpsertRequest(List.of(userDto, jane)))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("UPDATED"))
+                .andExpect(jsonPath("$[1].status").value("CREATED"))
+                .andExpect(jsonPath("$[1].user.email").value("jane@example.com"));
+        mockMvc.perform(put("/api/users/by-email")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BulkUpsertRequest(List.of()))))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getUsers_WithFields_ShouldReturnOnlyThoseFields() throws Exception {
+        // Given
+        when(userService.getAllUserFields(EnumSet.of(UserField.ID, UserField.EMAIL)))
+                .thenReturn(List.of(Map.of("id", 1, "email", "john.doe@example.com")));
+
+        // When & Then
+        mockMvc.perform(get("/api/users").param("fields", "email,id"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[0].email").value("john.doe@example.com"))
+                .andExpect(jsonPath("$[0].firstName").doesNotExist());
+    }
+
+    @Test
+    void getUser_WithUnknownField_ShouldReturn400() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/users/1").param("fields", "id,password"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("password")));
+        verifyNoInteractions(userService);
+    }
+}
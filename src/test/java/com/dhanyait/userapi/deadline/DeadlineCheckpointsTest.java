@@ -0,0 +1,134 @@
+package com.dhanyait.userapi.deadline;
+
+import com.dhanyait.userapi.exception.DeadlineExceededException;
+import com.dhanyait.userapi.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs the deadline checkpoints against a real JPA stack. datasource-micrometer is not
+ * part of a {@code @DataJpaTest}, so the proxy owned by {@link DeadlineConfiguration}
+ * is the only one around the {@code DataSource}.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({DeadlineConfiguration.class, DeadlineCheckpointsTest.Meters.class})
+@TestPropertySource(properties = "user.deadline.enabled=true")
+class DeadlineCheckpointsTest {
+
+    @MockBean(name = "handlerExceptionResolver")
+    private HandlerExceptionResolver handlerExceptionResolver;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void query_ShouldRunWithRemainingBudgetAsTimeout() throws Exception {
+        // Given
+        RequestDeadline deadline = RequestDeadline.after(Duration.ofMillis(2500));
+
+        // When
+        int timeout;
+        try (RequestDeadline.Scope scope = RequestDeadline.open(deadline);
+             Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.executeQuery("SELECT COUNT(*) FROM users").close();
+            timeout = statement.getQueryTimeout();
+        }
+
+        // Then
+        assertThat(timeout).isEqualTo(3);
+    }
+
+    @Test
+    void query_WhenDeadlinePassed_ShouldNotBeSent() {
+        // Given
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        double refused = abandoned("query");
+
+        // When & Then
+        try (RequestDeadline.Scope scope = RequestDeadline.open(RequestDeadline.after(Duration.ZERO))) {
+            assertThatThrownBy(() -> jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Long.class))
+                    .isInstanceOf(DeadlineExceededException.class);
+        }
+        assertThat(abandoned("query")).isEqualTo(refused + 1);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Long.class)).isNotNull();
+    }
+
+    @Test
+    void transaction_WhenDeadlinePassed_ShouldBeRefusedBeforeAnyStatement() {
+        // Given
+        double refusedTransactions = abandoned("transaction");
+        double refusedQueries = abandoned("query");
+
+        // When & Then
+        try (RequestDeadline.Scope scope = RequestDeadline.open(RequestDeadline.after(Duration.ZERO))) {
+            assertThatThrownBy(() -> userRepository.count())
+                    .isInstanceOf(DeadlineExceededException.class);
+        }
+        assertThat(transactionManager).isInstanceOf(DeadlineTransactionManager.class);
+        assertThat(abandoned("transaction")).isEqualTo(refusedTransactions + 1);
+        assertThat(abandoned("query")).isEqualTo(refusedQueries);
+    }
+
+    @Test
+    void transaction_WhenDeadlinePassed_ShouldNotOpenEntityManager() {
+        // Given
+        EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        DeadlineTransactionManager manager = new DeadlineTransactionManager(new SimpleMeterRegistry());
+        manager.setEntityManagerFactory(entityManagerFactory);
+
+        // When & Then
+        try (RequestDeadline.Scope scope = RequestDeadline.open(RequestDeadline.after(Duration.ZERO))) {
+            assertThatThrownBy(() -> manager.getTransaction(new DefaultTransactionDefinition()))
+                    .isInstanceOf(DeadlineExceededException.class);
+        }
+        verify(entityManagerFactory, never()).createEntityManager();
+        verify(entityManagerFactory, never()).createEntityManager(anyMap());
+    }
+
+    private double abandoned(String stage) {
+        return meterRegistry.get("user.deadline.abandoned").tag("stage", stage).counter().count();
+    }
+
+    @TestConfiguration(proxyBeanMethods = false)
+    static class Meters {
+
+        @Bean
+        SimpleMeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
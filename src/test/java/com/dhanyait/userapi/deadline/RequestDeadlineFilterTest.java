@@ -0,0 +1,100 @@
+package com.dhanyait.userapi.deadline;
+
+import com.dhanyait.userapi.exception.DeadlineExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class RequestDeadlineFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final HandlerExceptionResolver exceptionResolver = mock(HandlerExceptionResolver.class);
+    private final RequestDeadlineFilter filter =
+            new RequestDeadlineFilter(exceptionResolver, meterRegistry, Duration.ZERO);
+
+    @Test
+    void doFilter_ShouldExposeEarliestDeadlineToTheRequestOnly() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/1");
+        request.addHeader(RequestDeadlineFilter.GRPC_TIMEOUT_HEADER, "1500m");
+        request.addHeader(RequestDeadlineFilter.DEADLINE_HEADER, Instant.now().plusSeconds(60).toString());
+        AtomicReference<RequestDeadline> seen = new AtomicReference<>();
+        FilterChain chain = (req, res) -> seen.set(RequestDeadline.current());
+
+        // When
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        // Then
+        assertThat(seen.get()).isNotNull();
+        assertThat(seen.get().remainingNanos()).isBetween(0L, TimeUnit.MILLISECONDS.toNanos(1500));
+        assertThat(seen.get().remainingSeconds()).isEqualTo(2);
+        assertThat(RequestDeadline.current()).isNull();
+    }
+
+    @Test
+    void doFilter_WhenDeadlineAlreadyPassed_ShouldRejectWithoutProcessing() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/1");
+        request.addHeader(RequestDeadlineFilter.DEADLINE_HEADER, System.currentTimeMillis() - 10);
+        FilterChain chain = mock(FilterChain.class);
+
+        // When
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        // Then
+        verifyNoInteractions(chain);
+        verify(exceptionResolver).resolveException(eq(request), any(), isNull(), any(DeadlineExceededException.class));
+        assertThat(meterRegistry.get("user.deadline.abandoned").tag("stage", "arrival").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void parse_ShouldIgnoreMalformedHeaders() {
+        assertThat(RequestDeadlineFilter.parseGrpcTimeout("250")).isNull();
+        assertThat(RequestDeadlineFilter.parseGrpcTimeout("123456789m")).isNull();
+        assertThat(RequestDeadlineFilter.parseDeadline("tomorrow")).isNull();
+        assertThat(RequestDeadlineFilter.parseGrpcTimeout("2S").remainingSeconds()).isEqualTo(2);
+        assertThat(RequestDeadlineFilter.parseDeadline(" ")).isNull();
+    }
+
+    @Test
+    void parse_WhenBudgetIsHuge_ShouldCapItInsteadOfOverflowing() {
+        long cap = RequestDeadline.MAX_TIMEOUT.toNanos();
+
+        assertThat(RequestDeadlineFilter.parseGrpcTimeout("99999999H").remainingNanos()).isBetween(0L, cap);
+        assertThat(RequestDeadlineFilter.parseDeadline(String.valueOf(Long.MAX_VALUE)).remainingNanos())
+                .isBetween(0L, cap);
+        assertThat(RequestDeadlineFilter.parseDeadline("+1000000000-12-31T23:59:59Z").remainingNanos())
+                .isBetween(0L, cap);
+        assertThat(RequestDeadlineFilter.parseDeadline("0").isExpired()).isTrue();
+    }
+
+    @Test
+    void doFilter_WhenGrpcTimeoutIsHuge_ShouldProcessTheRequest() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/1");
+        request.addHeader(RequestDeadlineFilter.GRPC_TIMEOUT_HEADER, "99999999H");
+        AtomicReference<RequestDeadline> seen = new AtomicReference<>();
+        FilterChain chain = (req, res) -> seen.set(RequestDeadline.current());
+
+        // When
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        // Then
+        assertThat(seen.get().isExpired()).isFalse();
+        assertThat(seen.get().remainingSeconds()).isEqualTo((int) RequestDeadline.MAX_TIMEOUT.toSeconds());
+        verifyNoInteractions(exceptionResolver);
+    }
+}
@@ -0,0 +1,51 @@
+package com.dhanyait.userapi.hotkey;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+class HeavyHitterSketchTest {
+
+    @Test
+    void add_WithSkewedTraffic_ShouldRankHotKeysFirst() {
+        // Given
+        HeavyHitterSketch sketch = new HeavyHitterSketch(8, 1024);
+        Random random = new Random(42);
+
+        // When: three keys take 30% of 100k lookups spread over 50k cold keys
+        for (int i = 0; i < 100_000; i++) {
+            int roll = random.nextInt(100);
+            sketch.add(roll < 15 ? 7L : roll < 25 ? 8L : roll < 30 ? 9L : 1_000 + random.nextInt(50_000));
+        }
+
+        // Then
+        assertThat(sketch.total()).isEqualTo(100_000);
+        assertThat(sketch.top()).hasSize(8);
+        assertThat(sketch.top().subList(0, 3)).extracting(HeavyHitterSketch.HeavyHitter::key).containsExactly(7L, 8L, 9L);
+        assertThat(sketch.top().get(0).count()).isBetween(14_000L, 16_500L);
+    }
+
+    @Test
+    void decay_ShouldLetCooledKeysFallOut() {
+        // Given
+        HeavyHitterSketch sketch = new HeavyHitterSketch(2, 1024);
+        for (int i = 0; i < 1_000; i++) {
+            sketch.add(1L);
+        }
+
+        // When: key 1 goes quiet while 2 and 3 stay busy across several half-lives
+        for (int round = 0; round < 6; round++) {
+            sketch.decay();
+            for (int i = 0; i < 200; i++) {
+                sketch.add(2L);
+                sketch.add(3L);
+            }
+        }
+
+        // Then
+        assertThat(sketch.top()).extracting(HeavyHitterSketch.HeavyHitter::key).containsExactlyInAnyOrder(2L, 3L);
+        assertThat(sketch.total()).isLessThan(1_000 + 6 * 400);
+    }
+}
@@ -0,0 +1,73 @@
+package com.dhanyait.userapi.hotkey;
+
+import com.dhanyait.userapi.dto.UserDto;
+import com.dhanyait.userapi.service.UserChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.*;
+
+class HotUserCacheTest {
+
+    private final HotKeyTracker tracker = new HotKeyTracker(4, 1024, Duration.ofHours(1), 0.2);
+    private final HotUserCache cache = new HotUserCache(tracker, new SimpleMeterRegistry(), Duration.ofHours(1));
+    private final AtomicInteger loads = new AtomicInteger();
+    private final Function<Long, UserDto> loader = id -> {
+        loads.incrementAndGet();
+        UserDto user = new UserDto("First" + id, "Last", "user" + id + "@example.com");
+        user.setId(id);
+        return user;
+    };
+
+    @AfterEach
+    void tearDown() {
+        tracker.destroy();
+    }
+
+    @Test
+    void get_ShouldPinOnlyHotUsersAndEvictThemOnChange() {
+        // Given: id 1 takes half the traffic, ids 100..199 share the rest
+        for (long i = 0; i < 200; i++) {
+            tracker.recordId(i % 2 == 0 ? 1L : 100 + i / 2);
+        }
+        tracker.publishHotSet();
+
+        // When
+        cache.get(1L, loader);
+        cache.get(1L, loader);
+        cache.get(150L, loader);
+        cache.get(150L, loader);
+        int loadsBeforeChange = loads.get();
+        cache.onUserChanged(UserChangedEvent.deleted(1L));
+        cache.get(1L, loader);
+
+        // Then
+        assertThat(tracker.hotIds()).containsExactly(1L);
+        assertThat(loadsBeforeChange).isEqualTo(3);
+        assertThat(loads).hasValue(4);
+    }
+
+    @Test
+    void get_WhenEntryOutlivesTtl_ShouldReloadIt() throws InterruptedException {
+        // Given
+        HotUserCache shortLived = new HotUserCache(tracker, new SimpleMeterRegistry(), Duration.ofMillis(50));
+        for (int i = 0; i < 10; i++) {
+            tracker.recordId(1L);
+        }
+        tracker.publishHotSet();
+        shortLived.get(1L, loader);
+        shortLived.get(1L, loader);
+
+        // When
+        Thread.sleep(100);
+        shortLived.get(1L, loader);
+
+        // Then
+        assertThat(loads).hasValue(2);
+    }
+}
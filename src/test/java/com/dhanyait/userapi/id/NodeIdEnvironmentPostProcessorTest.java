@@ -0,0 +1,49 @@
+package com.dhanyait.userapi.id;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.assertj.core.api.Assertions.*;
+
+class NodeIdEnvironmentPostProcessorTest {
+
+    private final NodeIdEnvironmentPostProcessor postProcessor = new NodeIdEnvironmentPostProcessor();
+
+    @Test
+    void postProcess_WhenUnsetInDevelopment_ShouldDefaultToNodeZero() {
+        // Given
+        MockEnvironment environment = new MockEnvironment().withProperty("user.id.node-id", "");
+        environment.setActiveProfiles("dev");
+
+        // When
+        postProcessor.postProcessEnvironment(environment, null);
+
+        // Then
+        assertThat(environment.getProperty("user.id.node-id")).isEqualTo("0");
+    }
+
+    @Test
+    void postProcess_WhenUnsetInOtherProfile_ShouldFailStartup() {
+        // Given
+        MockEnvironment environment = new MockEnvironment();
+        environment.setActiveProfiles("fast-start");
+
+        // When & Then
+        assertThatThrownBy(() -> postProcessor.postProcessEnvironment(environment, null))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("user.id.node-id");
+    }
+
+    @Test
+    void postProcess_WhenSetExplicitly_ShouldKeepIt() {
+        // Given
+        MockEnvironment environment = new MockEnvironment().withProperty("user.id.node-id", "7");
+        environment.setActiveProfiles("prod");
+
+        // When
+        postProcessor.postProcessEnvironment(environment, null);
+
+        // Then
+        assertThat(environment.getProperty("user.id.node-id")).isEqualTo("7");
+    }
+}
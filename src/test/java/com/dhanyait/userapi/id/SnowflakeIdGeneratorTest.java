@@ -0,0 +1,98 @@
+package com.dhanyait.userapi.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+class SnowflakeIdGeneratorTest {
+
+    @Test
+    void nextId_FromManyThreads_ShouldBeUniqueAndIncreasingPerThread() throws Exception {
+        // Given
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(7, System::currentTimeMillis);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<long[]>> futures = new ArrayList<>();
+
+        // When
+        for (int thread = 0; thread < 8; thread++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                long[] ids = new long[50_000];
+                for (int i = 0; i < ids.length; i++) {
+                    ids[i] = generator.nextId();
+                }
+                return ids;
+            }));
+        }
+        start.countDown();
+        Set<Long> all = new HashSet<>();
+        for (Future<long[]> future : futures) {
+            long[] ids = future.get();
+            for (int i = 0; i < ids.length; i++) {
+                assertThat(all.add(ids[i])).as("duplicate id %d", ids[i]).isTrue();
+                if (i > 0) {
+                    assertThat(ids[i]).isGreaterThan(ids[i - 1]);
+                }
+            }
+        }
+        executor.shutdown();
+
+        // Then
+        assertThat(all).hasSize(400_000);
+        assertThat(all).allSatisfy(id -> assertThat(SnowflakeIdGenerator.nodeOf(id)).isEqualTo(7));
+    }
+
+    @Test
+    void nextId_WhenClockStepsBack_ShouldKeepIncreasing() {
+        // Given
+        long now = Instant.parse("2026-01-01T00:00:00Z").toEpochMilli();
+        AtomicLong clock = new AtomicLong(now);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, clock::get);
+        long before = generator.nextId();
+
+        // When
+        clock.set(now - 5_000);
+        long during = generator.nextId();
+        clock.set(now + 1);
+        long after = generator.nextId();
+
+        // Then
+        assertThat(during).isGreaterThan(before);
+        assertThat(after).isGreaterThan(during);
+        assertThat(SnowflakeIdGenerator.timestampOf(before)).isEqualTo(Instant.ofEpochMilli(now));
+        assertThat(SnowflakeIdGenerator.timestampOf(after)).isEqualTo(Instant.ofEpochMilli(now + 1));
+    }
+
+    @Test
+    void nextId_WhenSequenceOverflows_ShouldBorrowNextMillisecond() {
+        // Given
+        long now = Instant.parse("2026-01-01T00:00:00Z").toEpochMilli();
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_NODE_ID, () -> now);
+
+        // When
+        long last = 0;
+        for (int i = 0; i <= 4096; i++) {
+            long id = generator.nextId();
+            assertThat(id).isGreaterThan(last);
+            last = id;
+        }
+
+        // Then
+        assertThat(SnowflakeIdGenerator.timestampOf(last)).isEqualTo(Instant.ofEpochMilli(now + 1));
+        assertThat(SnowflakeIdGenerator.nodeOf(last)).isEqualTo(SnowflakeIdGenerator.MAX_NODE_ID);
+        assertThatThrownBy(() -> new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_NODE_ID + 1, () -> now))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
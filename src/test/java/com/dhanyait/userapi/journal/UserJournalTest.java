@@ -0,0 +1,240 @@
+package com.dhanyait.userapi.journal;
+
+import com.dhanyait.userapi.dto.UserDto;
+import com.dhanyait.userapi.service.UserChangedEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class UserJournalTest {
+
+    private static final LocalDateTime UPDATED_AT = LocalDateTime.of(2026, 1, 2, 3, 4, 5, 123_456_789);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void replay_ShouldReturnRecordsInOrderFromAnyOffset() throws Exception {
+        // Given
+        UserJournal journal = new UserJournal(tempDir, 1 << 16, 8, 10);
+        journal.append(UserChangedEvent.Type.CREATED, 1L, UPDATED_AT, "John", "Doe", "john@example.com");
+        journal.append(UserChangedEvent.Type.UPDATED, 1L, UPDATED_AT, "Jöhn", "Doe", "john@example.com");
+        journal.append(UserChangedEvent.Type.DELETED, 1L, null, null, null, null);
+
+        // When
+        List<JournalEntry> entries = new ArrayList<>();
+        long end = journal.replay(0, entries::add);
+        List<JournalEntry> tail = new ArrayList<>();
+        journal.replay(entries.get(1).offset(), tail::add);
+        List<JournalEntry> none = new ArrayList<>();
+        long sameEnd = journal.replay(end, none::add);
+
+        // Then
+        assertThat(entries).extracting(JournalEntry::type).containsExactly(
+                UserChangedEvent.Type.CREATED, UserChangedEvent.Type.UPDATED, UserChangedEvent.Type.DELETED);
+        assertThat(entries.get(1).firstName()).isEqualTo("Jöhn");
+        assertThat(entries.get(1).email()).isEqualTo("john@example.com");
+        assertThat(entries.get(2).email()).isNull();
+        assertThat(entries.get(1).updatedAt()).isEqualTo(UPDATED_AT);
+        assertThat(entries.get(2).updatedAt()).isNull();
+        assertThat(entries.get(2).nextOffset()).isEqualTo(end);
+        assertThat(tail).extracting(JournalEntry::offset)
+                .containsExactly(entries.get(1).offset(), entries.get(2).offset());
+        assertThat(none).isEmpty();
+        assertThat(sameEnd).isEqualTo(end);
+        journal.destroy();
+    }
+
+    @Test
+    void onUserChanged_ShouldRecordUpdatedAtSoLateArrivalsCanBeDropped() throws Exception {
+        // Given
+        UserJournal journal = new UserJournal(tempDir, 1 << 16, 8, 10);
+        UserDto older = user("John", UPDATED_AT);
+        UserDto newer = user("Johnny", UPDATED_AT.plusNanos(1_000));
+
+        // When: the later commit's callback happens to run first
+        journal.onUserChanged(UserChangedEvent.updated(newer));
+        journal.onUserChanged(UserChangedEvent.updated(older));
+
+        // Then
+        List<JournalEntry> entries = new ArrayList<>();
+        journal.replay(0, entries::add);
+        assertThat(entries).extracting(JournalEntry::updatedAt)
+                .containsExactly(newer.getUpdatedAt(), older.getUpdatedAt());
+        assertThat(entries.get(1).updatedAt()).isBefore(entries.get(0).updatedAt());
+        journal.destroy();
+    }
+
+    @Test
+    void append_FromManyThreads_ShouldKeepEveryRecordAcrossSegments() throws Exception {
+        // Given
+        UserJournal journal = new UserJournal(tempDir, 4096, 1000, 1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // When
+        for (int thread = 0; thread < 8; thread++) {
+            long first = thread * 1000L;
+            futures.add(executor.submit(() -> {
+                for (long id = first; id < first + 1000; id++) {
+                    journal.append(UserChangedEvent.Type.CREATED, id, UPDATED_AT, "First", "Last",
+                            "user" + id + "@example.com");
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // Then
+        List<JournalEntry> entries = new ArrayList<>();
+        journal.replay(0, entries::add);
+        assertThat(entries).hasSize(8000);
+        assertThat(entries).extracting(JournalEntry::userId).doesNotHaveDuplicates();
+        assertThat(entries).allSatisfy(entry ->
+                assertThat(entry.email()).isEqualTo("user" + entry.userId() + "@example.com"));
+        assertThat(entries).extracting(JournalEntry::offset).isSorted();
+        assertThat(segmentCount()).isGreaterThan(1);
+        journal.destroy();
+    }
+
+    @Test
+    void roll_ShouldDropSegmentsPastRetention() throws Exception {
+        // Given
+        UserJournal journal = new UserJournal(tempDir, 4096, 2, 10);
+
+        // When
+        for (long id = 0; id < 1000; id++) {
+            journal.append(UserChangedEvent.Type.CREATED, id, UPDATED_AT, "First", "Last",
+                    "user" + id + "@example.com");
+        }
+
+        // Then
+        List<JournalEntry> entries = new ArrayList<>();
+        journal.replay(0, entries::add);
+        assertThat(segmentCount()).isEqualTo(2);
+        assertThat(entries.get(0).offset()).isEqualTo(journal.firstOffset());
+        assertThat(entries.get(entries.size() - 1).userId()).isEqualTo(999L);
+        journal.destroy();
+    }
+
+    @Test
+    void reopen_AfterCleanShutdown_ShouldAppendAfterExistingRecords() throws Exception {
+        // Given
+        UserJournal journal = new UserJournal(tempDir, 1 << 16, 8, 10);
+        long first = journal.append(UserChangedEvent.Type.CREATED, 1L, UPDATED_AT, "John", "Doe", "john@example.com");
+        journal.destroy();
+
+        // When
+        UserJournal reopened = new UserJournal(tempDir, 1 << 16, 8, 10);
+        long second = reopened.append(UserChangedEvent.Type.CREATED, 2L, UPDATED_AT, "Jane", "Doe", "jane@example.com");
+
+        // Then
+        List<JournalEntry> entries = new ArrayList<>();
+        reopened.replay(0, entries::add);
+        assertThat(second).isGreaterThan(first);
+        assertThat(entries).extracting(JournalEntry::userId).containsExactly(1L, 2L);
+        assertThat(segmentCount()).isEqualTo(1);
+        reopened.destroy();
+    }
+
+    @Test
+    void reopen_AfterTornTail_ShouldRecoverAndReplayUpToLastGoodRecord() throws Exception {
+        // Given
+        UserJournal journal = new UserJournal(tempDir, 1 << 16, 8, 10);
+        journal.append(UserChangedEvent.Type.CREATED, 1L, UPDATED_AT, "John", "Doe", "john@example.com");
+        journal.append(UserChangedEvent.Type.UPDATED, 1L, UPDATED_AT, "Johnny", "Doe", "john@example.com");
+        long end = journal.replay(0, entry -> { });
+        journal.destroy();
+        writeTail(end, 100, new byte[] {7, 7, 7, 7, 1, 2, 3, 4, 5, 6, 7, 8});
+
+        // When
+        List<JournalEntry> beforeRecovery = new ArrayList<>();
+        long stoppedAt = journal.replay(0, beforeRecovery::add);
+        UserJournal reopened = assertTimeoutPreemptively(Duration.ofSeconds(5),
+                () -> new UserJournal(tempDir, 1 << 16, 8, 10));
+        reopened.append(UserChangedEvent.Type.DELETED, 1L, null, null, null, null);
+
+        // Then
+        List<JournalEntry> entries = new ArrayList<>();
+        reopened.replay(0, entries::add);
+        assertThat(beforeRecovery).hasSize(2);
+        assertThat(stoppedAt).isEqualTo(end);
+        assertThat(entries).extracting(JournalEntry::type).containsExactly(
+                UserChangedEvent.Type.CREATED, UserChangedEvent.Type.UPDATED, UserChangedEvent.Type.DELETED);
+        reopened.destroy();
+    }
+
+    @Test
+    void reopen_AfterGarbageLength_ShouldNotLoopOrReadPastSegment() throws Exception {
+        for (int garbage : new int[] {-7, -3, Integer.MAX_VALUE - 3}) {
+            // Given
+            UserJournal journal = new UserJournal(tempDir, 1 << 16, 8, 10);
+            journal.append(UserChangedEvent.Type.CREATED, garbage, UPDATED_AT, "John", "Doe", "john@example.com");
+            long end = journal.replay(0, entry -> { });
+            journal.destroy();
+            writeTail(end, garbage, new byte[0]);
+
+            // When
+            List<JournalEntry> beforeRecovery = new ArrayList<>();
+            journal.replay(0, beforeRecovery::add);
+            UserJournal reopened = assertTimeoutPreemptively(Duration.ofSeconds(5),
+                    () -> new UserJournal(tempDir, 1 << 16, 8, 10));
+
+            // Then
+            List<JournalEntry> entries = new ArrayList<>();
+            reopened.replay(0, entries::add);
+            assertThat(beforeRecovery.get(beforeRecovery.size() - 1).userId()).isEqualTo(garbage);
+            assertThat(entries).extracting(JournalEntry::userId).isEqualTo(
+                    beforeRecovery.stream().map(JournalEntry::userId).toList());
+            reopened.destroy();
+        }
+    }
+
+    /**
+     * Overwrites the journal at {@code offset} with a record header that was never
+     * fully written, as a crash mid-append or a zeroed-then-garbage page leaves it.
+     */
+    private void writeTail(long offset, int length, byte[] rest) throws Exception {
+        Path segment;
+        try (Stream<Path> files = Files.list(tempDir)) {
+            segment = files.filter(path -> path.toString().endsWith(".journal")).sorted()
+                    .reduce((first, second) -> second).orElseThrow();
+        }
+        long base = Long.parseLong(segment.getFileName().toString().replace(".journal", ""));
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            ByteBuffer tail = ByteBuffer.allocate(4 + rest.length).putInt(length).put(rest).flip();
+            channel.write(tail, offset - base);
+        }
+    }
+
+    private long segmentCount() throws Exception {
+        try (Stream<Path> files = Files.list(tempDir)) {
+            return files.filter(path -> path.toString().endsWith(".journal")).count();
+        }
+    }
+
+    private static UserDto user(String firstName, LocalDateTime updatedAt) {
+        UserDto user = new UserDto(firstName, "Doe", "john@example.com");
+        user.setId(1L);
+        user.setUpdatedAt(updatedAt);
+        return user;
+    }
+}
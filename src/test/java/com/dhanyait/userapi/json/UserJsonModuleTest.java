@@ -0,0 +1,130 @@
+package com.dhanyait.userapi.json;
+
+import com.dhanyait.userapi.dto.UserDto;
+import com.dhanyait.userapi.exception.GlobalExceptionHandler.ErrorResponse;
+import com.dhanyait.userapi.exception.GlobalExceptionHandler.ValidationErrorResponse;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+
+class UserJsonModuleTest {
+
+    // Same settings Spring Boot applies to its ObjectMapper
+    private final ObjectMapper reference = JsonMapper.builder()
+            .findAndAddModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+
+    private final ObjectMapper tuned = reference.copy().registerModule(new UserJsonModule());
+
+    static Stream<LocalDateTime> timestamps() {
+        return Stream.of(
+                LocalDateTime.of(2024, 1, 1, 0, 0),
+                LocalDateTime.of(2024, 2, 29, 23, 59, 59),
+                LocalDateTime.of(2024, 6, 15, 10, 15, 30, 100_000_000),
+                LocalDateTime.of(2024, 6, 15, 10, 15, 30, 120_000_000),
+                LocalDateTime.of(2024, 6, 15, 10, 15, 30, 123_456_789),
+                LocalDateTime.of(2024, 6, 15, 10, 15, 30, 1_000),
+                LocalDateTime.of(2024, 6, 15, 10, 15, 30, 1),
+                LocalDateTime.of(1, 1, 1, 1, 1, 1),
+                LocalDateTime.of(12024, 1, 1, 0, 0),
+                LocalDateTime.of(-5, 1, 1, 0, 0),
+                LocalDateTime.now());
+    }
+
+    @ParameterizedTest
+    @MethodSource("timestamps")
+    void serialize_UserDto_ShouldMatchBeanSerializer(LocalDateTime timestamp) throws Exception {
+        // Given
+        UserDto user = new UserDto(42L, "Zoë \"Z\"", "O'Brien\n\u0001", "zoe@example.com", timestamp, timestamp.plusNanos(5));
+
+        // When & Then
+        assertThat(tuned.writeValueAsString(user)).isEqualTo(reference.writeValueAsString(user));
+        assertThat(tuned.writeValueAsBytes(List.of(user, user))).isEqualTo(reference.writeValueAsBytes(List.of(user, user)));
+    }
+
+    @Test
+    void serialize_UserDto_ShouldCarryIdAsStringToo() throws Exception {
+        // Given
+        long id = (1L << 53) + 1;
+        UserDto user = new UserDto(id, "John", "Doe", "john@example.com", null, null);
+
+        // When
+        String json = tuned.writeValueAsString(user);
+
+        // Then
+        assertThat(json).startsWith("{\"id\":9007199254740993,\"idStr\":\"9007199254740993\",");
+        assertThat(tuned.readValue(json, UserDto.class).getId()).isEqualTo(id);
+        assertThat(reference.readValue(json, UserDto.class).getId()).isEqualTo(id);
+    }
+
+    @ParameterizedTest
+    @MethodSource("timestamps")
+    void serialize_ErrorResponses_ShouldMatchBeanSerializer(LocalDateTime timestamp) throws Exception {
+        // Given
+        Map<String, String> errors = new LinkedHashMap<>();
+        errors.put("email", "Email should be valid");
+        errors.put("firstName", "First name is required");
+        ErrorResponse error = new ErrorResponse(404, "User not found with id: 1", timestamp);
+        ErrorResponse validation = new ValidationErrorResponse(400, "Validation failed", timestamp, errors);
+
+        // When & Then
+        assertThat(tuned.writeValueAsString(error)).isEqualTo(reference.writeValueAsString(error));
+        assertThat(tuned.writeValueAsString(validation)).isEqualTo(reference.writeValueAsString(validation));
+    }
+
+    @Test
+    void serialize_UserDtoWithNulls_ShouldMatchBeanSerializer() throws Exception {
+        // Given
+        UserDto user = new UserDto();
+
+        // When & Then
+        assertThat(tuned.getSerializerProviderInstance().findValueSerializer(UserDto.class))
+                .isInstanceOf(UserDtoSerializer.class);
+        assertThat(tuned.writeValueAsString(user)).isEqualTo(reference.writeValueAsString(user));
+    }
+
+    @ParameterizedTest
+    @MethodSource("timestamps")
+    void deserialize_UserDto_ShouldRoundTrip(LocalDateTime timestamp) throws Exception {
+        // Given
+        UserDto user = new UserDto(7L, "John", "Doe", "john@example.com", timestamp, null);
+        String json = reference.writeValueAsString(user);
+
+        // When
+        UserDto result = tuned.readValue(json, UserDto.class);
+
+        // Then
+        assertThat(result).usingRecursiveComparison().isEqualTo(reference.readValue(json, UserDto.class));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "{\"firstName\":\"John\",\"lastName\":\"Doe\",\"email\":\"john@example.com\"}",
+            "{\"id\":\"12\",\"firstName\":\"John\",\"unknown\":{\"nested\":[1,2]},\"email\":null}",
+            "{\"createdAt\":[2024,1,2,3,4,5],\"updatedAt\":\"2024-01-02T03:04\"}",
+            "{\"createdAt\":\"2024-01-02T03:04:05.5\",\"updatedAt\":\"2024-01-02T03:04:05.123456\"}",
+            "{}"
+    })
+    void deserialize_LenientInput_ShouldMatchBeanDeserializer(String json) throws Exception {
+        // When
+        UserDto result = tuned.readValue(json, UserDto.class);
+
+        // Then
+        assertThat(result).usingRecursiveComparison().isEqualTo(reference.readValue(json, UserDto.class));
+    }
+}
@@ -0,0 +1,45 @@
+package com.dhanyait.userapi.monitoring;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.Resource;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FlightRecorderEndpointTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void stop_ShouldStreamDumpWithoutEnvironmentAndDeleteIt() throws Exception {
+        // Given
+        Path dumpDir = tempDir.resolve("jfr");
+        FlightRecorderEndpoint endpoint = new FlightRecorderEndpoint(dumpDir);
+        endpoint.start("default", 60L);
+
+        // When
+        WebEndpointResponse<Resource> response = endpoint.stop();
+        Path copy = tempDir.resolve("downloaded.jfr");
+        try (InputStream in = response.getBody().getInputStream()) {
+            Files.copy(in, copy);
+        }
+
+        // Then
+        List<RecordedEvent> events = RecordingFile.readAllEvents(copy);
+        assertThat(events).isNotEmpty();
+        assertThat(events).extracting(event -> event.getEventType().getName())
+                .doesNotContainAnyElementsOf(FlightRecorderEndpoint.SENSITIVE_EVENTS);
+        try (var files = Files.list(dumpDir)) {
+            assertThat(files).isEmpty();
+        }
+    }
+}
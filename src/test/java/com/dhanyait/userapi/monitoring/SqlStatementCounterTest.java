@@ -0,0 +1,88 @@
+package com.dhanyait.userapi.monitoring;
+
+import com.dhanyait.userapi.dto.UserDto;
+import com.dhanyait.userapi.mapper.UserMapperImpl;
+import com.dhanyait.userapi.repository.JpaUserStore;
+import com.dhanyait.userapi.repository.UserRepository;
+import com.dhanyait.userapi.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Pins the number of SQL statements each user operation issues; a change here
+ * means an endpoint got chattier.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({JpaUserStore.class, UserMapperImpl.class, UserService.class})
+class SqlStatementCounterTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserService userService;
+
+    private UserDto john;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAll();
+        john = userService.createUser(new UserDto("John", "Doe", "john@example.com"));
+        userService.createUser(new UserDto("Jane", "Doe", "jane@example.com"));
+    }
+
+    @Test
+    void userOperations_ShouldIssueExpectedStatementCounts() {
+        try (SqlStatementCounter.Scope sql = SqlStatementCounter.open()) {
+            userService.getUserById(john.getId());
+            assertThat(sql.statements()).hasSize(1);
+        }
+        try (SqlStatementCounter.Scope sql = SqlStatementCounter.open()) {
+            userService.getAllUsers();
+            assertThat(sql.statements()).hasSize(1);
+        }
+        try (SqlStatementCounter.Scope sql = SqlStatementCounter.open()) {
+            userService.createUser(new UserDto("Jim", "Beam", "jim@example.com"));
+            assertThat(sql.statements()).hasSize(2);
+        }
+        try (SqlStatementCounter.Scope sql = SqlStatementCounter.open()) {
+            userService.updateUser(john.getId(), new UserDto("John", "Smith", "john@example.com"));
+            assertThat(sql.statements()).hasSize(2);
+        }
+        try (SqlStatementCounter.Scope sql = SqlStatementCounter.open()) {
+            userService.upsertUserByEmail("jane@example.com", new UserDto("Jane", "Smith", "jane@example.com"));
+            assertThat(sql.statements()).hasSize(1);
+        }
+        try (SqlStatementCounter.Scope sql = SqlStatementCounter.open()) {
+            userService.deleteUser(john.getId());
+            assertThat(sql.statements()).hasSize(2);
+        }
+    }
+
+    @Test
+    void nestedScope_ShouldAlsoCountTowardsEnclosingScope() {
+        // Given
+        SqlStatementCounter.Scope outer = SqlStatementCounter.open();
+
+        // When
+        try (SqlStatementCounter.Scope inner = SqlStatementCounter.open()) {
+            userService.getUserById(john.getId());
+            assertThat(inner.count()).isEqualTo(1);
+        }
+        userService.getAllUsers();
+        outer.close();
+        userService.getAllUsers();
+
+        // Then
+        assertThat(outer.count()).isEqualTo(2);
+        assertThat(outer.statements()).last().asString().containsIgnoringCase("from users");
+    }
+}
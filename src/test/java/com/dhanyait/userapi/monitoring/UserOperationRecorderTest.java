@@ -0,0 +1,91 @@
+package com.dhanyait.userapi.monitoring;
+
+import com.dhanyait.userapi.dto.UserDto;
+import com.dhanyait.userapi.entity.User;
+import com.dhanyait.userapi.exception.UserNotFoundException;
+import com.dhanyait.userapi.mapper.UserMapperImpl;
+import com.dhanyait.userapi.repository.InMemoryUserStore;
+import com.dhanyait.userapi.repository.UserStore;
+import com.dhanyait.userapi.service.UserService;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UserOperationRecorderTest {
+
+    private final UserOperationRecorder recorder = new UserOperationRecorder();
+
+    private UserService userService;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() {
+        UserOperationQueryListener queryListener = new UserOperationQueryListener();
+        UserStore userStore = new InMemoryUserStore() {
+            @Override
+            public Optional<User> findById(Long id) {
+                // Stands in for the datasource proxy around a JDBC statement
+                queryListener.beforeQuery(null, List.of());
+                try {
+                    return super.findById(id);
+                } finally {
+                    queryListener.afterQuery(null, List.of());
+                }
+            }
+        };
+        userService = proxy(new UserService(userStore, new UserMapperImpl(), event -> { }));
+    }
+
+    @Test
+    void recordsOneEventPerServiceCall() throws Exception {
+        // Given
+        Path dump = tempDir.resolve("test.jfr");
+
+        UserDto created;
+
+        // When
+        try (Recording recording = new Recording()) {
+            recording.enable(UserOperationEvent.class);
+            recording.start();
+            created = userService.createUser(new UserDto("John", "Doe", "john.doe@example.com"));
+            userService.getUserById(created.getId());
+            assertThatThrownBy(() -> userService.getUserById(999L)).isInstanceOf(UserNotFoundException.class);
+            recording.stop();
+            recording.dump(dump);
+        }
+
+        // Then
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+        assertThat(events).extracting(event -> event.getString("operation"))
+                .containsExactly("createUser", "getUserById", "getUserById");
+        assertThat(events).extracting(event -> event.getString("outcome"))
+                .containsExactly("SUCCESS", "SUCCESS", "UserNotFoundException");
+        assertThat(events.get(0).getLong("userId")).isEqualTo(-1L);
+        assertThat(events.get(1).getLong("userId")).isEqualTo(created.getId());
+        assertThat(events.get(2).getLong("userId")).isEqualTo(999L);
+        assertThat(events.get(1).getDuration("dbTime")).isPositive();
+        assertThat(events.get(1).getDuration("mappingTime")).isPositive();
+        assertThat(events.get(0).getDuration("dbTime")).isZero();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T proxy(T target) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(recorder);
+        return (T) factory.getProxy();
+    }
+}
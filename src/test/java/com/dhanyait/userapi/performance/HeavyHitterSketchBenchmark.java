@@ -0,0 +1,51 @@
+package com.dhanyait.userapi.performance;
+
+import com.dhanyait.userapi.hotkey.HeavyHitterSketch;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of recording a user id in a {@link HeavyHitterSketch}, with a skewed
+ * mix where a few ids take a fifth of the traffic, single-threaded and from eight
+ * request threads. Run with {@code main} from the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HeavyHitterSketchBenchmark {
+
+    private HeavyHitterSketch sketch;
+
+    @Setup
+    public void setUp() {
+        sketch = new HeavyHitterSketch(32, 4096);
+    }
+
+    @Benchmark
+    public void add() {
+        sketch.add(nextId());
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void addContended() {
+        sketch.add(nextId());
+    }
+
+    private static long nextId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return random.nextInt(5) == 0 ? random.nextInt(4) : random.nextLong(1_000_000);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(HeavyHitterSketchBenchmark.class.getSimpleName()).build()).run();
+    }
+}
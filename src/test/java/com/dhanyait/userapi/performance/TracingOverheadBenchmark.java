@@ -0,0 +1,108 @@
+package com.dhanyait.userapi.performance;
+
+import com.dhanyait.userapi.dto.UserDto;
+import com.dhanyait.userapi.mapper.UserMapperImpl;
+import com.dhanyait.userapi.repository.InMemoryUserStore;
+import com.dhanyait.userapi.service.UserService;
+import com.dhanyait.userapi.tracing.TailSamplingSpanProcessor;
+import com.dhanyait.userapi.tracing.TracingAspect;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.otel.bridge.OtelCurrentTraceContext;
+import io.micrometer.tracing.otel.bridge.OtelTracer;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of tracing on the {@code getUserById} hot path, against the in-memory store so
+ * the spans are not hidden behind a database round trip: the bare service, the service
+ * behind {@link TracingAspect} with tracing off, and fully traced under a request span
+ * whose fast trace the {@link TailSamplingSpanProcessor} then drops. Run with
+ * {@code main} from the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TracingOverheadBenchmark {
+
+    private SdkTracerProvider tracerProvider;
+    private Tracer tracer;
+    private UserService untraced;
+    private UserService tracingOff;
+    private UserService traced;
+    private Long id;
+
+    @Setup
+    public void setUp() {
+        tracerProvider = SdkTracerProvider.builder()
+                .addSpanProcessor(new TailSamplingSpanProcessor(SpanProcessor.composite(), Duration.ofMillis(250),
+                        0.0, 10_000, Duration.ofSeconds(30)))
+                .build();
+        tracer = new OtelTracer(tracerProvider.get("benchmark"), new OtelCurrentTraceContext(), event -> { });
+        untraced = new UserService(new InMemoryUserStore(), new UserMapperImpl(), event -> { });
+        tracingOff = service(aspect(Tracer.NOOP));
+        traced = service(aspect(tracer));
+        id = untraced.createUser(new UserDto("John", "Doe", "john.doe@example.com")).getId();
+        tracingOff.createUser(new UserDto("John", "Doe", "john.doe@example.com"));
+        traced.createUser(new UserDto("John", "Doe", "john.doe@example.com"));
+    }
+
+    @TearDown
+    public void tearDown() {
+        tracerProvider.close();
+    }
+
+    @Benchmark
+    public UserDto untraced() {
+        return untraced.getUserById(id);
+    }
+
+    @Benchmark
+    public UserDto tracingOff() {
+        return tracingOff.getUserById(id);
+    }
+
+    @Benchmark
+    public UserDto traced() {
+        Span request = tracer.nextSpan().name("http get /api/users/{id}").start();
+        try (Tracer.SpanInScope scope = tracer.withSpan(request)) {
+            return traced.getUserById(id);
+        } finally {
+            request.end();
+        }
+    }
+
+    private static TracingAspect aspect(Tracer tracer) {
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        beans.addBean("tracer", tracer);
+        return new TracingAspect(beans.getBeanProvider(Tracer.class));
+    }
+
+    private static UserService service(TracingAspect aspect) {
+        return proxy(new UserService(new InMemoryUserStore(), proxy(new UserMapperImpl(), aspect), event -> { }), aspect);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(T target, TracingAspect aspect) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(aspect);
+        return (T) factory.getProxy();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(TracingOverheadBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,62 @@
+package com.dhanyait.userapi.performance;
+
+import com.dhanyait.userapi.journal.UserJournal;
+import com.dhanyait.userapi.service.UserChangedEvent;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Cost of one {@link UserJournal} append on the write path, single-threaded and with
+ * eight request threads appending at once. Run with {@code main} from the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserJournalBenchmark {
+
+    private static final LocalDateTime UPDATED_AT = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+    private Path dir;
+    private UserJournal journal;
+
+    @Setup
+    public void setUp() throws Exception {
+        dir = Files.createTempDirectory("journal-bench");
+        journal = new UserJournal(dir, 64 << 20, 4, 10);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        journal.destroy();
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public long append() {
+        return journal.append(UserChangedEvent.Type.UPDATED, 42L, UPDATED_AT, "John", "Doe", "john.doe@example.com");
+    }
+
+    @Benchmark
+    @Threads(8)
+    public long appendContended() {
+        return journal.append(UserChangedEvent.Type.UPDATED, 42L, UPDATED_AT, "John", "Doe", "john.doe@example.com");
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(UserJournalBenchmark.class.getSimpleName()).build()).run();
+    }
+}
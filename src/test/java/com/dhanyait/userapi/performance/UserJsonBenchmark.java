@@ -0,0 +1,84 @@
+package com.dhanyait.userapi.performance;
+
+import com.dhanyait.userapi.dto.UserDto;
+import com.dhanyait.userapi.json.UserJsonModule;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the default bean serialization of a {@code GET /api/users} page with
+ * {@link UserJsonModule}. Run with {@code main} from the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserJsonBenchmark {
+
+    @Param({"1000"})
+    private int users;
+
+    private List<UserDto> page;
+    private byte[] pageJson;
+    private ObjectWriter defaultWriter;
+    private ObjectWriter tunedWriter;
+    private ObjectMapper defaultMapper;
+    private ObjectMapper tunedMapper;
+
+    @Setup
+    public void setUp() throws Exception {
+        defaultMapper = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .build();
+        tunedMapper = defaultMapper.copy().registerModule(new UserJsonModule());
+        defaultWriter = defaultMapper.writerFor(defaultMapper.getTypeFactory().constructCollectionType(List.class, UserDto.class));
+        tunedWriter = tunedMapper.writerFor(tunedMapper.getTypeFactory().constructCollectionType(List.class, UserDto.class));
+
+        page = new ArrayList<>(users);
+        LocalDateTime now = LocalDateTime.now();
+        for (long i = 1; i <= users; i++) {
+            page.add(new UserDto(i, "First" + i, "Last" + i, "user" + i + "@example.com", now, now.plusSeconds(i)));
+        }
+        pageJson = defaultWriter.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] serializeDefault() throws Exception {
+        return defaultWriter.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] serializeTuned() throws Exception {
+        return tunedWriter.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public UserDto[] deserializeDefault() throws Exception {
+        return defaultMapper.readValue(pageJson, UserDto[].class);
+    }
+
+    @Benchmark
+    public UserDto[] deserializeTuned() throws Exception {
+        return tunedMapper.readValue(pageJson, UserDto[].class);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(UserJsonBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,110 @@
+package com.dhanyait.userapi.repository;
+
+import com.dhanyait.userapi.entity.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class JpaUserStoreTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @TempDir
+    Path tempDir;
+
+    private MappedEmailIndex emailIndex;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAll();
+        userRepository.save(new User("John", "Doe", "john@example.com"));
+        emailIndex = new MappedEmailIndex(tempDir.resolve("email.idx"), 16);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        emailIndex.destroy();
+    }
+
+    @Test
+    void loadEmailIndex_ShouldRebuildFromTable() {
+        // Given
+        emailIndex.onInsert("stale@example.com", 42L);
+        JpaUserStore store = store(0);
+
+        // When
+        store.loadEmailIndex();
+
+        // Then
+        assertThat(emailIndex.size()).isEqualTo(1);
+        assertThat(emailIndex.mightContain("stale@example.com")).isFalse();
+        assertThat(store.existsByEmail("john@example.com")).isTrue();
+    }
+
+    @Test
+    void loadEmailIndex_WhenAnotherNodeWroteUsers_ShouldFallBackToDatabase() {
+        // Given
+        JpaUserStore store = store(1);
+
+        // When
+        store.loadEmailIndex();
+        userRepository.save(new User("Jane", "Doe", "jane@example.com"));
+
+        // Then
+        assertThat(store.existsByEmail("jane@example.com")).isTrue();
+        assertThat(emailIndex.size()).isZero();
+    }
+
+    @Test
+    void loadEmailIndex_WhenReopenedIndexMatchesTable_ShouldKeepIt() throws Exception {
+        // Given
+        User john = userRepository.findAll().get(0);
+        emailIndex.onInsert(john.getEmail(), john.getId());
+        emailIndex.onUpdate("renamed@example.com", john.getId());
+        emailIndex.destroy();
+        emailIndex = new MappedEmailIndex(tempDir.resolve("email.idx"), 16);
+
+        // When
+        store(0).loadEmailIndex();
+
+        // Then
+        assertThat(emailIndex.isReopened()).isTrue();
+        assertThat(emailIndex.mightContain("renamed@example.com")).isTrue();
+    }
+
+    @Test
+    void loadEmailIndex_WhenTableGainedUsersWhileDown_ShouldRebuild() throws Exception {
+        // Given
+        User john = userRepository.findAll().get(0);
+        emailIndex.onInsert(john.getEmail(), john.getId());
+        emailIndex.destroy();
+        userRepository.save(new User("Jane", "Doe", "jane@example.com"));
+        emailIndex = new MappedEmailIndex(tempDir.resolve("email.idx"), 16);
+
+        // When
+        store(0).loadEmailIndex();
+
+        // Then
+        assertThat(emailIndex.size()).isEqualTo(2);
+        assertThat(emailIndex.mightContain("jane@example.com")).isTrue();
+    }
+
+    private JpaUserStore store(int nodeId) {
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        beans.addBean("emailIndex", emailIndex);
+        return new JpaUserStore(userRepository, beans.getBeanProvider(MappedEmailIndex.class), nodeId);
+    }
+}
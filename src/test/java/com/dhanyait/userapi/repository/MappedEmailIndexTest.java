@@ -0,0 +1,125 @@
+package com.dhanyait.userapi.repository;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.*;
+
+class MappedEmailIndexTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void mightContain_ShouldTrackInsertsAndDeletes() throws Exception {
+        // Given
+        MappedEmailIndex index = new MappedEmailIndex(tempDir.resolve("email.idx"), 16);
+
+        // When
+        index.onInsert("john@example.com", 1L);
+        index.onInsert("jane@example.com", 2L);
+        index.onDelete("jane@example.com", 2L);
+
+        // Then
+        assertThat(index.mightContain("john@example.com")).isTrue();
+        assertThat(index.mightContain("  JOHN@Example.com ")).isTrue();
+        assertThat(index.mightContain("jane@example.com")).isFalse();
+        assertThat(index.mightContain("nobody@example.com")).isFalse();
+        index.destroy();
+    }
+
+    @Test
+    void onInsert_WhenTableFillsUp_ShouldGrowAndKeepEntries() throws Exception {
+        // Given
+        MappedEmailIndex index = new MappedEmailIndex(tempDir.resolve("email.idx"), 16);
+
+        // When
+        for (long id = 1; id <= 10_000; id++) {
+            index.onInsert("user" + id + "@example.com", id);
+        }
+
+        // Then
+        for (long id = 1; id <= 10_000; id++) {
+            assertThat(index.mightContain("user" + id + "@example.com")).isTrue();
+        }
+        assertThat(index.mightContain("user10001@example.com")).isFalse();
+        assertThat(index.size()).isEqualTo(10_000);
+        index.destroy();
+    }
+
+    @Test
+    void onDelete_WhenEntryIsMissing_ShouldKeepTheCount() throws Exception {
+        // Given
+        MappedEmailIndex index = new MappedEmailIndex(tempDir.resolve("email.idx"), 16);
+        index.onInsert("john@example.com", 1L);
+
+        // When
+        index.onDelete("nobody@example.com", 2L);
+        index.onDelete("john@example.com", 3L);
+
+        // Then
+        assertThat(index.size()).isEqualTo(1);
+        index.destroy();
+    }
+
+    @Test
+    void reopen_AfterCleanShutdown_ShouldKeepEntries() throws Exception {
+        // Given
+        Path file = tempDir.resolve("email.idx");
+        MappedEmailIndex index = new MappedEmailIndex(file, 16);
+        index.onInsert("john@example.com", 7L);
+        index.onInsert("jane@example.com", 3L);
+        index.destroy();
+
+        // When
+        MappedEmailIndex reopened = new MappedEmailIndex(file, 16);
+
+        // Then
+        assertThat(reopened.isReopened()).isTrue();
+        assertThat(reopened.size()).isEqualTo(2);
+        assertThat(reopened.highWaterId()).isEqualTo(7L);
+        assertThat(reopened.mightContain("jane@example.com")).isTrue();
+        assertThat(reopened.mightContain("nobody@example.com")).isFalse();
+        reopened.destroy();
+    }
+
+    @Test
+    void reopen_AfterCrash_ShouldStartEmptyForRebuild() throws Exception {
+        // Given
+        Path file = tempDir.resolve("email.idx");
+        MappedEmailIndex index = new MappedEmailIndex(file, 16);
+        index.onInsert("john@example.com", 1L);
+        Path crashed = Files.copy(file, tempDir.resolve("crashed.idx"));
+        index.destroy();
+
+        // When
+        MappedEmailIndex reopened = new MappedEmailIndex(crashed, 16);
+
+        // Then
+        assertThat(reopened.isReopened()).isFalse();
+        assertThat(reopened.size()).isZero();
+        assertThat(reopened.mightContain("john@example.com")).isFalse();
+        reopened.destroy();
+    }
+
+    @Test
+    void open_WhenFileAlreadyInUse_ShouldFallBackToDatabase() throws Exception {
+        // Given
+        Path file = tempDir.resolve("email.idx");
+        MappedEmailIndex index = new MappedEmailIndex(file, 16);
+
+        // When
+        MappedEmailIndex second = new MappedEmailIndex(file, 16);
+        second.onInsert("john@example.com", 1L);
+
+        // Then
+        assertThat(second.isActive()).isFalse();
+        assertThat(second.mightContain("anyone@example.com")).isTrue();
+        assertThat(index.mightContain("john@example.com")).isFalse();
+        second.destroy();
+        index.destroy();
+    }
+}
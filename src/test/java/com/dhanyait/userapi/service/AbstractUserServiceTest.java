@@ -0,0 +1,226 @@
+package com.dhanyait.userapi.service;
+
+import com.dhanyait.userapi.dto.UpsertStatus;
+import com.dhanyait.userapi.dto.UserDto;
+import com.dhanyait.userapi.dto.UserField;
+import com.dhanyait.userapi.dto.UserUpsertResponse;
+import com.dhanyait.userapi.exception.InvalidRequestException;
+import com.dhanyait.userapi.exception.UserAlreadyExistsException;
+import com.dhanyait.userapi.exception.UserNotFoundException;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Service behaviour every {@link com.dhanyait.userapi.repository.UserStore} engine must honour.
+ */
+abstract class AbstractUserServiceTest {
+
+    protected UserService userService;
+
+    @Test
+    void createUser_ThenGetById_ShouldReturnSameUser() {
+        // Given
+        UserDto created = userService.createUser(new UserDto("John", "Doe", "john@example.com"));
+
+        // When
+        UserDto result = userService.getUserById(created.getId());
+
+        // Then
+        assertThat(result.getId()).isNotNull();
+        assertThat(result.getEmail()).isEqualTo("john@example.com");
+        assertThat(result.getCreatedAt()).isNotNull();
+        assertThat(result.getUpdatedAt()).isNotNull();
+    }
+
+    @Test
+    void getUsersByIds_ShouldReturnExistingUsersKeyedById() {
+        // Given
+        UserDto john = userService.createUser(new UserDto("John", "Doe", "john@example.com"));
+        UserDto jane = userService.createUser(new UserDto("Jane", "Doe", "jane@example.com"));
+
+        // When
+        Map<Long, UserDto> result = userService.getUsersByIds(List.of(john.getId(), jane.getId(), 999_999L));
+
+        // Then
+        assertThat(result).containsOnlyKeys(john.getId(), jane.getId());
+        assertThat(result.get(jane.getId()).getEmail()).isEqualTo("jane@example.com");
+    }
+
+    @Test
+    void createUser_WhenEmailTaken_ShouldThrowException() {
+        // Given
+        userService.createUser(new UserDto("John", "Doe", "john@example.com"));
+
+        // When & Then
+        assertThatThrownBy(() -> userService.createUser(new UserDto("Jane", "Smith", "john@example.com")))
+                .isInstanceOf(UserAlreadyExistsException.class);
+    }
+
+    @Test
+    void updateUser_WhenEmailChanges_ShouldReleaseOldEmail() {
+        // Given
+        UserDto created = userService.createUser(new UserDto("John", "Doe", "john@example.com"));
+
+        // When
+        UserDto updated = userService.updateUser(created.getId(), new UserDto("John", "Smith", "john.smith@example.com"));
+        UserDto reused = userService.createUser(new UserDto("Jane", "Doe", "john@example.com"));
+
+        // Then
+        assertThat(updated.getLastName()).isEqualTo("Smith");
+        assertThat(updated.getEmail()).isEqualTo("john.smith@example.com");
+        assertThat(reused.getId()).isNotEqualTo(created.getId());
+    }
+
+    @Test
+    void updateUser_WhenEmailTakenByAnotherUser_ShouldThrowException() {
+        // Given
+        userService.createUser(new UserDto("John", "Doe", "john@example.com"));
+        UserDto jane = userService.createUser(new UserDto("Jane", "Smith", "jane@example.com"));
+
+        // When & Then
+        assertThatThrownBy(() -> userService.updateUser(jane.getId(), new UserDto("Jane", "Smith", "john@example.com")))
+                .isInstanceOf(UserAlreadyExistsException.class);
+    }
+
+    @Test
+    void deleteUser_ShouldRemoveUser() {
+        // Given
+        UserDto created = userService.createUser(new UserDto("John", "Doe", "john@example.com"));
+
+        // When
+        userService.deleteUser(created.getId());
+
+        // Then
+        assertThatThrownBy(() -> userService.getUserById(created.getId()))
+                .isInstanceOf(UserNotFoundException.class);
+        assertThatThrownBy(() -> userService.deleteUser(created.getId()))
+                .isInstanceOf(UserNotFoundException.class);
+    }
+
+    @Test
+    void getAllUsers_ShouldReturnEveryUser() {
+        // Given
+        userService.createUser(new UserDto("John", "Doe", "john@example.com"));
+        userService.createUser(new UserDto("Jane", "Smith", "jane@example.com"));
+
+        // When
+        List<UserDto> result = userService.getAllUsers();
+
+        // Then
+        assertThat(result).extracting(UserDto::getEmail)
+                .containsExactlyInAnyOrder("john@example.com", "jane@example.com");
+    }
+
+    @Test
+    void getUserFields_ShouldReturnOnlyRequestedFields() {
+        // Given
+        UserDto john = userService.createUser(new UserDto("John", "Doe", "john@example.com"));
+        userService.createUser(new UserDto("Jane", "Smith", "jane@example.com"));
+
+        // When
+        Map<String, Object> one = userService.getUserFieldsById(john.getId(), EnumSet.of(UserField.EMAIL, UserField.ID));
+        List<Map<String, Object>> all = userService.getAllUserFields(EnumSet.of(UserField.EMAIL));
+
+        // Then
+        assertThat(one).containsExactly(entry("id", john.getId()), entry("idStr", john.getId().toString()),
+                entry("email", "john@example.com"));
+        assertThat(all).extracting(row -> row.keySet()).allSatisfy(keys -> assertThat(keys).containsExactly("email"));
+        assertThat(all).extracting(row -> row.get("email"))
+                .containsExactlyInAnyOrder("john@example.com", "jane@example.com");
+        assertThatThrownBy(() -> userService.getUserFieldsById(-1L, EnumSet.of(UserField.ID)))
+                .isInstanceOf(UserNotFoundException.class);
+    }
+
+    @Test
+    void upsertUserByEmail_ShouldCreateThenSkipThenUpdate() {
+        // Given
+        UserDto john = new UserDto("John", "Doe", "john@example.com");
+
+        // When
+        UserUpsertResponse created = userService.upsertUserByEmail("john@example.com", john);
+        UserUpsertResponse repeated = userService.upsertUserByEmail("john@example.com", john);
+        UserUpsertResponse updated = userService.upsertUserByEmail("john@example.com",
+                new UserDto("John", "Smith", "john@example.com"));
+
+        // Then
+        assertThat(created.getStatus()).isEqualTo(UpsertStatus.CREATED);
+        assertThat(created.getUser().getCreatedAt()).isNotNull();
+        assertThat(repeated.getStatus()).isEqualTo(UpsertStatus.UNCHANGED);
+        assertThat(repeated.getUser().getId()).isEqualTo(created.getUser().getId());
+        assertThat(repeated.getUser().getUpdatedAt()).isEqualTo(created.getUser().getUpdatedAt());
+        assertThat(updated.getStatus()).isEqualTo(UpsertStatus.UPDATED);
+        assertThat(updated.getUser().getId()).isEqualTo(created.getUser().getId());
+        assertThat(updated.getUser().getCreatedAt()).isEqualTo(created.getUser().getCreatedAt());
+        assertThat(updated.getUser().getUpdatedAt()).isAfter(created.getUser().getUpdatedAt());
+        assertThat(userService.getUserById(created.getUser().getId()).getLastName()).isEqualTo("Smith");
+        assertThatThrownBy(() -> userService.upsertUserByEmail("jane@example.com", john))
+                .isInstanceOf(InvalidRequestException.class);
+    }
+
+    @Test
+    void upsertUsersByEmail_ShouldReportStatusPerUserInOrder() {
+        // Given
+        userService.createUser(new UserDto("John", "Doe", "john@example.com"));
+        userService.createUser(new UserDto("Jane", "Smith", "jane@example.com"));
+
+        // When
+        List<UserUpsertResponse> result = userService.upsertUsersByEmail(List.of(
+                new UserDto("Jim", "Beam", "jim@example.com"),
+                new UserDto("John", "Doe", "john@example.com"),
+                new UserDto("Jane", "Doe", "jane@example.com")));
+
+        // Then
+        assertThat(result).extracting(UserUpsertResponse::getStatus)
+                .containsExactly(UpsertStatus.CREATED, UpsertStatus.UNCHANGED, UpsertStatus.UPDATED);
+        assertThat(result).extracting(response -> response.getUser().getEmail())
+                .containsExactly("jim@example.com", "john@example.com", "jane@example.com");
+        assertThat(userService.getAllUsers()).hasSize(3);
+    }
+
+    @Test
+    void upsertUserByEmail_WhenTwoCallersRaceForANewEmail_ShouldCreateItOnce() {
+        for (int round = 0; round < 10; round++) {
+            // Given
+            String email = "race" + round + "@example.com";
+            UserDto user = new UserDto("Race", "Winner", email);
+            CyclicBarrier start = new CyclicBarrier(2);
+
+            // When
+            List<CompletableFuture<UserUpsertResponse>> callers = List.of(
+                    CompletableFuture.supplyAsync(() -> upsertAfter(start, email, user)),
+                    CompletableFuture.supplyAsync(() -> upsertAfter(start, email, user)));
+
+            // Then
+            assertThat(callers).extracting(caller -> caller.join().getStatus())
+                    .containsExactlyInAnyOrder(UpsertStatus.CREATED, UpsertStatus.UNCHANGED);
+            assertThat(callers.get(0).join().getUser().getId()).isEqualTo(callers.get(1).join().getUser().getId());
+        }
+    }
+
+    @Test
+    void upsertUsersByEmail_WithDuplicateEmails_ShouldRejectTheRequest() {
+        // When & Then
+        assertThatThrownBy(() -> userService.upsertUsersByEmail(List.of(
+                new UserDto("John", "Doe", "john@example.com"),
+                new UserDto("John", "Smith", "john@example.com"))))
+                .isInstanceOf(InvalidRequestException.class)
+                .hasMessageContaining("john@example.com");
+        assertThat(userService.getAllUsers()).isEmpty();
+    }
+
+    private UserUpsertResponse upsertAfter(CyclicBarrier start, String email, UserDto user) {
+        try {
+            start.await();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return userService.upsertUserByEmail(email, user);
+    }
+}
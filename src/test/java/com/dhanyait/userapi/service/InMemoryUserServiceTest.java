@@ -0,0 +1,13 @@
+package com.dhanyait.userapi.service;
+
+import com.dhanyait.userapi.mapper.UserMapperImpl;
+import com.dhanyait.userapi.repository.InMemoryUserStore;
+import org.junit.jupiter.api.BeforeEach;
+
+class InMemoryUserServiceTest extends AbstractUserServiceTest {
+
+    @BeforeEach
+    void setUp() {
+        userService = new UserService(new InMemoryUserStore(), new UserMapperImpl(), event -> { });
+    }
+}
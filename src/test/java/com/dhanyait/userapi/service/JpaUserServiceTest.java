@@ -0,0 +1,29 @@
+package com.dhanyait.userapi.service;
+
+import com.dhanyait.userapi.mapper.UserMapperImpl;
+import com.dhanyait.userapi.repository.JpaUserStore;
+import com.dhanyait.userapi.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({JpaUserStore.class, UserMapperImpl.class, UserService.class})
+class JpaUserServiceTest extends AbstractUserServiceTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserService jpaUserService;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAll();
+        userService = jpaUserService;
+    }
+}
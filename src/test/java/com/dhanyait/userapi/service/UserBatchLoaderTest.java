@@ -0,0 +1,276 @@
+package com.dhanyait.userapi.service;
+
+import com.dhanyait.userapi.deadline.RequestDeadline;
+import com.dhanyait.userapi.dto.UserDto;
+import com.dhanyait.userapi.exception.BulkheadFullException;
+import com.dhanyait.userapi.exception.DeadlineExceededException;
+import com.dhanyait.userapi.exception.UserNotFoundException;
+import com.dhanyait.userapi.mapper.UserMapperImpl;
+import com.dhanyait.userapi.repository.InMemoryUserStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class UserBatchLoaderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger queries = new AtomicInteger();
+    private final AtomicInteger pointReads = new AtomicInteger();
+    private final Set<Long> blockedIds = ConcurrentHashMap.newKeySet();
+    private final Semaphore blocked = new Semaphore(0);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private UserService userService;
+    private UserBatchLoader batchLoader;
+
+    @BeforeEach
+    void setUp() {
+        userService = new UserService(new InMemoryUserStore(), new UserMapperImpl(), event -> { }) {
+            @Override
+            public UserDto getUserById(Long id) {
+                pointReads.incrementAndGet();
+                awaitRelease(List.of(id));
+                return super.getUserById(id);
+            }
+
+            @Override
+            public Map<Long, UserDto> getUsersByIds(Collection<Long> ids) {
+                queries.incrementAndGet();
+                awaitRelease(ids);
+                return super.getUsersByIds(ids);
+            }
+        };
+        for (int i = 1; i <= 20; i++) {
+            userService.createUser(new UserDto("First" + i, "Last" + i, "user" + i + "@example.com"));
+        }
+        pointReads.set(0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        batchLoader.destroy();
+    }
+
+    @Test
+    void get_WhenNothingElseIsInFlight_ShouldLoadAtOnceAsGetUserById() {
+        // Given
+        batchLoader = new UserBatchLoader(userService, meterRegistry, Duration.ofMinutes(1), 100, 2, 4, Duration.ofSeconds(5));
+
+        // When
+        UserDto user = assertTimeoutPreemptively(Duration.ofSeconds(5), () -> batchLoader.get(3L));
+
+        // Then
+        assertThat(user.getId()).isEqualTo(3L);
+        assertThat(pointReads).hasValue(1);
+        assertThat(queries).hasValue(0);
+        assertThat(meterRegistry.get("user.batch.size").tag("trigger", "direct").summary().count()).isEqualTo(1);
+    }
+
+    @Test
+    void load_WithinOneWindow_ShouldIssueSingleQuery() {
+        // Given
+        batchLoader = new UserBatchLoader(userService, meterRegistry, Duration.ofMillis(200), 100, 2, 4, Duration.ofSeconds(5));
+        CompletableFuture<UserDto> inFlight = holdLookup(1L);
+
+        // When
+        List<CompletableFuture<UserDto>> futures = new ArrayList<>();
+        for (long id = 2; id <= 20; id++) {
+            futures.add(batchLoader.load(id));
+        }
+        futures.add(batchLoader.load(5L));
+
+        // Then
+        for (int i = 0; i < 19; i++) {
+            assertThat(futures.get(i).join().getEmail()).isEqualTo("user" + (i + 2) + "@example.com");
+        }
+        assertThat(futures.get(19).join().getId()).isEqualTo(5L);
+        assertThat(queries).hasValue(1);
+        assertThat(meterRegistry.get("user.batch.size").tag("trigger", "window").summary().totalAmount()).isEqualTo(19);
+        assertThat(meterRegistry.get("user.batch.requests").counter().count()).isEqualTo(21);
+        release.countDown();
+        assertThat(inFlight.join().getId()).isEqualTo(1L);
+    }
+
+    @Test
+    void load_WhenBatchFills_ShouldNotWaitForWindow() {
+        // Given
+        batchLoader = new UserBatchLoader(userService, meterRegistry, Duration.ofMinutes(1), 9, 2, 4, Duration.ofSeconds(5));
+        holdLookup(1L);
+
+        // When
+        List<CompletableFuture<UserDto>> futures = new ArrayList<>();
+        for (long id = 2; id <= 19; id++) {
+            futures.add(batchLoader.load(id));
+        }
+
+        // Then
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        assertThat(queries).hasValue(2);
+        assertThat(meterRegistry.get("user.batch.size").tag("trigger", "size").summary().count()).isEqualTo(2);
+    }
+
+    @Test
+    void load_WhenOnlyOneIdIsWaiting_ShouldLoadItAsGetUserById() {
+        // Given
+        batchLoader = new UserBatchLoader(userService, meterRegistry, Duration.ofMillis(100), 100, 2, 4, Duration.ofSeconds(5));
+        holdLookup(1L);
+
+        // When
+        CompletableFuture<UserDto> found = batchLoader.load(2L);
+        CompletableFuture<UserDto> missing = batchLoader.load(999L);
+        found.join();
+        CompletableFuture<UserDto> alone = batchLoader.load(3L);
+
+        // Then
+        assertThat(alone.join().getId()).isEqualTo(3L);
+        assertThatThrownBy(missing::join).hasCauseInstanceOf(UserNotFoundException.class);
+        assertThat(queries).hasValue(1);
+        assertThat(pointReads).hasValue(2);
+    }
+
+    @Test
+    void load_WhenUserDoesNotExist_ShouldFailOnlyThatCaller() {
+        // Given
+        batchLoader = new UserBatchLoader(userService, meterRegistry, Duration.ofMillis(50), 100, 2, 4, Duration.ofSeconds(5));
+        holdLookup(1L);
+
+        // When
+        CompletableFuture<UserDto> found = batchLoader.load(2L);
+        CompletableFuture<UserDto> missing = batchLoader.load(999L);
+
+        // Then
+        assertThat(found.join().getId()).isEqualTo(2L);
+        assertThatThrownBy(missing::join)
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(UserNotFoundException.class)
+                .hasMessageContaining("User not found with id: 999");
+        assertThat(queries).hasValue(1);
+    }
+
+    @Test
+    void load_WhenCallerDeadlinePasses_ShouldLeaveItOutOfTheQuery() {
+        // Given
+        batchLoader = new UserBatchLoader(userService, meterRegistry, Duration.ofMillis(100), 100, 2, 4, Duration.ofSeconds(5));
+        holdLookup(1L);
+
+        // When
+        CompletableFuture<UserDto> expired;
+        try (RequestDeadline.Scope scope = RequestDeadline.open(RequestDeadline.after(Duration.ofMillis(10)))) {
+            expired = batchLoader.load(2L);
+        }
+        CompletableFuture<UserDto> waiting = batchLoader.load(3L);
+        CompletableFuture<UserDto> alsoWaiting = batchLoader.load(4L);
+
+        // Then
+        assertThat(waiting.join().getId()).isEqualTo(3L);
+        assertThat(alsoWaiting.join().getId()).isEqualTo(4L);
+        assertThatThrownBy(expired::join)
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(DeadlineExceededException.class);
+        assertThat(queries).hasValue(1);
+        assertThat(meterRegistry.get("user.deadline.abandoned").tag("stage", "batch").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void load_WhenBatchQueueIsFull_ShouldFailTheCallersAtOnce() {
+        // Given
+        batchLoader = new UserBatchLoader(userService, meterRegistry, Duration.ofMinutes(1), 2, 1, 1, Duration.ofSeconds(5));
+        holdLookup(1L);
+        blockedIds.add(2L);
+        CompletableFuture<UserDto> running = batchLoader.load(2L);
+        batchLoader.load(3L);
+        blocked.acquireUninterruptibly();
+        CompletableFuture<UserDto> queued = batchLoader.load(4L);
+        batchLoader.load(5L);
+
+        // When
+        CompletableFuture<UserDto> rejected = batchLoader.load(6L);
+        batchLoader.load(7L);
+
+        // Then
+        assertThat(rejected).isCompletedExceptionally();
+        assertThatThrownBy(rejected::join).hasCauseInstanceOf(BulkheadFullException.class);
+        release.countDown();
+        assertThat(running.join().getId()).isEqualTo(2L);
+        assertThat(queued.join().getId()).isEqualTo(4L);
+    }
+
+    @Test
+    void destroy_WithOpenWindow_ShouldFailWaitingCallersAndLaterOnes() {
+        // Given
+        batchLoader = new UserBatchLoader(userService, meterRegistry, Duration.ofMinutes(1), 100, 2, 4, Duration.ofSeconds(5));
+        holdLookup(1L);
+        CompletableFuture<UserDto> waiting = batchLoader.load(2L);
+
+        // When
+        batchLoader.destroy();
+        CompletableFuture<UserDto> late = batchLoader.load(3L);
+
+        // Then
+        assertThat(waiting).isCompletedExceptionally();
+        assertThat(late).isCompletedExceptionally();
+        assertThatThrownBy(late::join).hasCauseInstanceOf(IllegalStateException.class);
+        assertThat(queries).hasValue(0);
+    }
+
+    @Test
+    void get_WhenBatchTakesLongerThanMaxWait_ShouldGiveUp() {
+        // Given
+        batchLoader = new UserBatchLoader(userService, meterRegistry, Duration.ofMinutes(1), 100, 2, 4, Duration.ofMillis(100));
+        holdLookup(1L);
+
+        // When & Then
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () ->
+                assertThatThrownBy(() -> batchLoader.get(2L))
+                        .isInstanceOf(DeadlineExceededException.class));
+    }
+
+    @Test
+    void get_ShouldReturnTheUserOrRethrowItsFailure() {
+        // Given
+        batchLoader = new UserBatchLoader(userService, meterRegistry, Duration.ofMillis(10), 100, 2, 4, Duration.ofSeconds(5));
+
+        // When & Then
+        assertThat(batchLoader.get(3L).getId()).isEqualTo(3L);
+        assertThatThrownBy(() -> batchLoader.get(999L)).isInstanceOf(UserNotFoundException.class);
+    }
+
+    /**
+     * Starts a lookup of {@code id} on another thread and keeps it in flight until
+     * {@link #release} opens, so the lookups that follow are batched.
+     */
+    private CompletableFuture<UserDto> holdLookup(Long id) {
+        blockedIds.add(id);
+        CompletableFuture<UserDto> future = CompletableFuture.supplyAsync(() -> batchLoader.get(id));
+        blocked.acquireUninterruptibly();
+        return future;
+    }
+
+    private void awaitRelease(Collection<Long> ids) {
+        if (ids.stream().anyMatch(blockedIds::contains)) {
+            blocked.release();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.dhanyait.userapi.service;
+
+import com.dhanyait.userapi.dto.ImportReport;
+import com.dhanyait.userapi.dto.UserDto;
+import com.dhanyait.userapi.entity.User;
+import com.dhanyait.userapi.exception.InvalidRequestException;
+import com.dhanyait.userapi.mapper.UserMapperImpl;
+import com.dhanyait.userapi.repository.InMemoryUserStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class UserImportServiceTest {
+
+    @TempDir
+    Path workDir;
+
+    private final List<Object> events = new ArrayList<>();
+    private InMemoryUserStore userStore;
+    private UserImportService userImportService;
+
+    @BeforeEach
+    void setUp() {
+        userStore = new InMemoryUserStore();
+        userImportService = new UserImportService(userStore, new UserMapperImpl(),
+                Validation.buildDefaultValidatorFactory().getValidator(), new ObjectMapper(),
+                TransactionOperations.withoutTransaction(), events::add, workDir, 2);
+    }
+
+    @Test
+    void importUsers_FromCsv_ShouldImportValidRowsAndRejectTheRest() throws Exception {
+        // Given
+        userStore.save(new User("Existing", "User", "taken@example.com"));
+        String csv = """
+                email,firstName,lastName
+                john@example.com,John,Doe
+                john@example.com,John,Again
+                not-an-email,Bad,Row
+                taken@example.com,Taken,User
+                "jane@example.com","Jane","O""Neil"
+                """;
+
+        // When
+        ImportReport report = userImportService.importUsers(stream(csv), UserImportService.Format.CSV, "csv-1");
+
+        // Then
+        assertThat(report.getProcessedRows()).isEqualTo(5);
+        assertThat(report.getImportedRows()).isEqualTo(2);
+        assertThat(report.getRejectedRows()).isEqualTo(3);
+        assertThat(report.getCommittedRows()).isEqualTo(5);
+        assertThat(userStore.findAll()).filteredOn(user -> user.getEmail().equals("jane@example.com"))
+                .singleElement().extracting(User::getLastName).isEqualTo("O\"Neil");
+        assertThat(events).hasSize(2).allMatch(event -> event instanceof UserChangedEvent changed
+                && changed.type() == UserChangedEvent.Type.CREATED && changed.userId() > 0);
+        assertThat(Files.readAllLines(Path.of(report.getRejectFile())))
+                .hasSize(4)
+                .anySatisfy(line -> assertThat(line).startsWith("3,\"Email should be valid\""))
+                .anySatisfy(line -> assertThat(line).startsWith("2,\"Duplicate email in import"))
+                .anySatisfy(line -> assertThat(line).startsWith("4,\"User already exists"));
+    }
+
+    @Test
+    void importUsers_FromNdjson_ShouldImportEachLine() throws Exception {
+        // Given
+        String ndjson = """
+                {"firstName":"John","lastName":"Doe","email":"john@example.com"}
+                {"firstName":"Jane"
+                {"firstName":"Jane","lastName":"Smith","email":"jane@example.com"}
+                """;
+
+        // When
+        ImportReport report = userImportService.importUsers(stream(ndjson), UserImportService.Format.NDJSON, null);
+
+        // Then
+        assertThat(report.getImportedRows()).isEqualTo(2);
+        assertThat(report.getRejectedRows()).isEqualTo(1);
+        assertThat(userStore.findAll()).extracting(User::getEmail)
+                .containsExactly("john@example.com", "jane@example.com");
+    }
+
+    @Test
+    void importUsers_WithSameImportId_ShouldResumeAfterCommittedRows() throws Exception {
+        // Given
+        String firstPart = "firstName,lastName,email\nJohn,Doe,john@example.com\nJane,Smith,jane@example.com\n";
+        String full = firstPart + "Jim,Beam,jim@example.com\n";
+        userImportService.importUsers(stream(firstPart), UserImportService.Format.CSV, "resume-1");
+
+        // When
+        ImportReport report = userImportService.importUsers(stream(full), UserImportService.Format.CSV, "resume-1");
+
+        // Then
+        assertThat(report.getProcessedRows()).isEqualTo(1);
+        assertThat(report.getImportedRows()).isEqualTo(1);
+        assertThat(report.getRejectedRows()).isZero();
+        assertThat(report.getCommittedRows()).isEqualTo(3);
+        assertThat(userStore.findAll()).hasSize(3);
+    }
+
+    @Test
+    void importUsers_WithUnsafeImportId_ShouldThrowException() {
+        assertThatThrownBy(() -> userImportService.importUsers(stream(""), UserImportService.Format.CSV, "../etc"))
+                .isInstanceOf(InvalidRequestException.class);
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -10,13 +10,14 @@ import com.dhanyait.userapi.entity.User;
 import com.dhanyait.userapi.exception.UserAlreadyExistsException;
 import com.dhanyait.userapi.exception.UserNotFoundException;
 import com.dhanyait.userapi.mapper.UserMapper;
-import com.dhanyait.userapi.repository.UserRepository;
+import com.dhanyait.userapi.repository.UserStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
@@ -31,11 +32,14 @@ import static org.mockito.Mockito.*;
 class UserServiceTest {
 
     @Mock
-    private UserRepository userRepository;
+    private UserStore userStore;
 
     @Mock
     private UserMapper userMapper;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private UserService userService;
 
@@ -58,7 +62,7 @@ class UserServiceTest {
     @Test
     void getUserById_WhenUserExists_ShouldReturnUserDto() {
         // Given
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userStore.findById(1L)).thenReturn(Optional.of(user));
         when(userMapper.toDto(user)).thenReturn(userDto);
 
         // When
@@ -68,14 +72,14 @@ class UserServiceTest {
         assertThat(result).isNotNull();
         assertThat(result.getId()).isEqualTo(1L);
         assertThat(result.getEmail()).isEqualTo("john.doe@example.com");
-        verify(userRepository).findById(1L);
+        verify(userStore).findById(1L);
         verify(userMapper).toDto(user);
     }
 
     @Test
     void getUserById_WhenUserDoesNotExist_ShouldThrowException() {
         // Given
-        when(userRepository.findById(1L)).thenReturn(Optional.empty());
+        when(userStore.findById(1L)).thenReturn(Optional.empty());
 
         // When & Then
         assertThatThrownBy(() -> userService.getUserById(1L))
@@ -89,7 +93,7 @@ class UserServiceTest {
         List<User> users = Arrays.asList(user, new User("Jane", "Smith", "jane@example.com"));
         List<UserDto> userDtos = Arrays.asList(userDto, new UserDto("Jane", "Smith", "jane@example.com"));
 
-        when(userRepository.findAll()).thenReturn(users);
+        when(userStore.findAll()).thenReturn(users);
         when(userMapper.toDtoList(users)).thenReturn(userDtos);
 
         // When
@@ -97,16 +101,16 @@ class UserServiceTest {
 
         // Then
         assertThat(result).hasSize(2);
-        verify(userRepository).findAll();
+        verify(userStore).findAll();
         verify(userMapper).toDtoList(users);
     }
 
     @Test
     void createUser_WhenEmailDoesNotExist_ShouldCreateUser() {
         // Given
-        when(userRepository.existsByEmail("john.doe@example.com")).thenReturn(false);
+        when(userStore.existsByEmail("john.doe@example.com")).thenReturn(false);
         when(userMapper.toEntity(userDto)).thenReturn(user);
-        when(userRepository.save(user)).thenReturn(user);
+        when(userStore.save(user)).thenReturn(user);
         when(userMapper.toDto(user)).thenReturn(userDto);
 
         // When
@@ -115,14 +119,15 @@ class UserServiceTest {
         // Then
         assertThat(result).isNotNull();
         assertThat(result.getEmail()).isEqualTo("john.doe@example.com");
-        verify(userRepository).existsByEmail("john.doe@example.com");
-        verify(userRepository).save(user);
+        verify(userStore).existsByEmail("john.doe@example.com");
+        verify(userStore).save(user);
+        verify(eventPublisher).publishEvent(UserChangedEvent.created(userDto));
     }
 
     @Test
     void createUser_WhenEmailAlreadyExists_ShouldThrowException() {
         // Given
-        when(userRepository.existsByEmail("john.doe@example.com")).thenReturn(true);
+        when(userStore.existsByEmail("john.doe@example.com")).thenReturn(true);
 
         // When & Then
         assertThatThrownBy(() -> userService.createUser(userDto))
@@ -133,24 +138,25 @@ class UserServiceTest {
     @Test
     void deleteUser_WhenUserExists_ShouldDeleteUser() {
         // Given
-        when(userRepository.existsById(1L)).thenReturn(true);
+        when(userStore.deleteById(1L)).thenReturn(true);
 
         // When
         userService.deleteUser(1L);
 
         // Then
-        verify(userRepository).existsById(1L);
-        verify(userRepository).deleteById(1L);
+        verify(userStore).deleteById(1L);
+        verify(eventPublisher).publishEvent(UserChangedEvent.deleted(1L));
     }
 
     @Test
     void deleteUser_WhenUserDoesNotExist_ShouldThrowException() {
         // Given
-        when(userRepository.existsById(1L)).thenReturn(false);
+        when(userStore.deleteById(1L)).thenReturn(false);
 
         // When & Then
         assertThatThrownBy(() -> userService.deleteUser(1L))
                 .isInstanceOf(UserNotFoundException.class)
                 .hasMessageContaining("User not found with id: 1");
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
     }
 }
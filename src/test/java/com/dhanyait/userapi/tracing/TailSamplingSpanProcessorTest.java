@@ -0,0 +1,97 @@
+package com.dhanyait.userapi.tracing;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.*;
+
+class TailSamplingSpanProcessorTest {
+
+    private final InMemorySpanExporter exporter = InMemorySpanExporter.create();
+    private final TailSamplingSpanProcessor sampler = new TailSamplingSpanProcessor(
+            SimpleSpanProcessor.create(exporter), Duration.ofMillis(250), 0.0, 100, Duration.ofSeconds(30));
+    private final SdkTracerProvider tracerProvider = SdkTracerProvider.builder().addSpanProcessor(sampler).build();
+    private final Tracer tracer = tracerProvider.get("test");
+
+    @AfterEach
+    void tearDown() {
+        tracerProvider.close();
+    }
+
+    @Test
+    void onEnd_ShouldKeepSlowTraceWithChildrenAndDropFastOne() {
+        // Given
+        Instant start = Instant.now();
+
+        // When
+        trace(start, start.plusMillis(5), false);
+        String slowTraceId = trace(start, start.plusMillis(300), false);
+
+        // Then
+        assertThat(exporter.getFinishedSpanItems())
+                .extracting(SpanData::getName)
+                .containsExactlyInAnyOrder("GET /api/users/{id}", "UserService.getUserById");
+        assertThat(exporter.getFinishedSpanItems())
+                .extracting(SpanData::getTraceId)
+                .containsOnly(slowTraceId);
+        assertThat(sampler.keptTraces()).isEqualTo(1);
+        assertThat(sampler.droppedTraces()).isEqualTo(1);
+    }
+
+    @Test
+    void onEnd_WhenChildFailed_ShouldKeepFastTrace() {
+        // Given
+        Instant start = Instant.now();
+
+        // When
+        String traceId = trace(start, start.plusMillis(5), true);
+
+        // Then
+        assertThat(exporter.getFinishedSpanItems()).hasSize(2);
+        assertThat(exporter.getFinishedSpanItems())
+                .filteredOn(span -> span.getStatus().getStatusCode() == StatusCode.ERROR)
+                .extracting(SpanData::getTraceId)
+                .containsExactly(traceId);
+    }
+
+    @Test
+    void onEnd_WhenRootHasErrorStatus_ShouldKeepFastTrace() {
+        // Given
+        Instant start = Instant.now();
+        Span root = tracer.spanBuilder("GET /api/users/{id}").setStartTimestamp(start).startSpan();
+
+        // When
+        root.setStatus(StatusCode.ERROR);
+        root.end(start.plusMillis(5));
+
+        // Then
+        assertThat(exporter.getFinishedSpanItems()).hasSize(1);
+        assertThat(sampler.keptTraces()).isEqualTo(1);
+    }
+
+    private String trace(Instant start, Instant end, boolean childFails) {
+        Span root = tracer.spanBuilder("GET /api/users/{id}").setStartTimestamp(start).startSpan();
+        try (Scope scope = root.makeCurrent()) {
+            Span child = tracer.spanBuilder("UserService.getUserById").setStartTimestamp(start).startSpan();
+            if (childFails) {
+                child.setAttribute(TailSamplingSpanProcessor.ERROR_TAG, "IllegalStateException");
+                child.recordException(new IllegalStateException("boom"));
+                child.setStatus(StatusCode.ERROR);
+            }
+            child.end(end);
+        }
+        root.end(end);
+        return root.getSpanContext().getTraceId();
+    }
+}
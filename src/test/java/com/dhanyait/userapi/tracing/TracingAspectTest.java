@@ -0,0 +1,92 @@
+package com.dhanyait.userapi.tracing;
+
+import com.dhanyait.userapi.dto.UserDto;
+import com.dhanyait.userapi.exception.UserNotFoundException;
+import com.dhanyait.userapi.mapper.UserMapperImpl;
+import com.dhanyait.userapi.repository.InMemoryUserStore;
+import com.dhanyait.userapi.service.UserService;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.otel.bridge.OtelCurrentTraceContext;
+import io.micrometer.tracing.otel.bridge.OtelTracer;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class TracingAspectTest {
+
+    private final InMemorySpanExporter exporter = InMemorySpanExporter.create();
+    private final SdkTracerProvider tracerProvider = SdkTracerProvider.builder()
+            .addSpanProcessor(SimpleSpanProcessor.create(exporter))
+            .build();
+
+    private UserService userService;
+
+    @BeforeEach
+    void setUp() {
+        Tracer tracer = new OtelTracer(tracerProvider.get("test"), new OtelCurrentTraceContext(), event -> { });
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        beans.addBean("tracer", tracer);
+        TracingAspect aspect = new TracingAspect(beans.getBeanProvider(Tracer.class));
+        userService = proxy(new UserService(new InMemoryUserStore(), proxy(new UserMapperImpl(), aspect),
+                event -> { }), aspect);
+    }
+
+    @AfterEach
+    void tearDown() {
+        tracerProvider.close();
+    }
+
+    @Test
+    void serviceCall_ShouldNestMapperSpansUnderServiceSpan() {
+        // Given
+        UserDto created = userService.createUser(new UserDto("John", "Doe", "john.doe@example.com"));
+        exporter.reset();
+
+        // When
+        userService.getUserById(created.getId());
+
+        // Then
+        List<SpanData> spans = exporter.getFinishedSpanItems();
+        SpanData service = spans.get(spans.size() - 1);
+        assertThat(service.getName()).isEqualTo("UserService.getUserById");
+        assertThat(spans).extracting(SpanData::getName).contains("UserMapperImpl.toDto");
+        assertThat(spans).allSatisfy(span -> assertThat(span.getTraceId()).isEqualTo(service.getTraceId()));
+        assertThat(spans).filteredOn(span -> span != service)
+                .allSatisfy(span -> assertThat(span.getParentSpanId()).isEqualTo(service.getSpanId()));
+    }
+
+    @Test
+    void serviceCall_WhenItThrows_ShouldMarkSpanAsError() {
+        // When
+        assertThatThrownBy(() -> userService.getUserById(999L)).isInstanceOf(UserNotFoundException.class);
+
+        // Then
+        assertThat(exporter.getFinishedSpanItems()).singleElement().satisfies(span -> {
+            assertThat(span.getName()).isEqualTo("UserService.getUserById");
+            assertThat(span.getStatus().getStatusCode()).isEqualTo(StatusCode.ERROR);
+            assertThat(span.getAttributes().get(AttributeKey.stringKey(TailSamplingSpanProcessor.ERROR_TAG)))
+                    .isEqualTo("UserNotFoundException");
+            assertThat(span.getEvents()).extracting(event -> event.getName()).contains("exception");
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(T target, TracingAspect aspect) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(aspect);
+        return (T) factory.getProxy();
+    }
+}
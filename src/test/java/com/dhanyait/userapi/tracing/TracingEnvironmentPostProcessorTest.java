@@ -0,0 +1,51 @@
+package com.dhanyait.userapi.tracing;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.assertj.core.api.Assertions.*;
+
+class TracingEnvironmentPostProcessorTest {
+
+    private final TracingEnvironmentPostProcessor postProcessor = new TracingEnvironmentPostProcessor();
+
+    @Test
+    void postProcess_WhenNoEndpoint_ShouldNotRecordSpans() {
+        // Given
+        MockEnvironment environment = new MockEnvironment();
+
+        // When
+        postProcessor.postProcessEnvironment(environment, null);
+
+        // Then
+        assertThat(environment.getProperty("management.tracing.sampling.probability")).isEqualTo("0.0");
+        assertThat(environment.getProperty("user.tracing.tail-sampling.enabled")).isEqualTo("false");
+    }
+
+    @Test
+    void postProcess_WhenEndpointIsSet_ShouldRecordEveryRequestAndTailSample() {
+        // Given
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("management.otlp.tracing.endpoint", "http://localhost:4318/v1/traces");
+
+        // When
+        postProcessor.postProcessEnvironment(environment, null);
+
+        // Then
+        assertThat(environment.getProperty("management.tracing.sampling.probability")).isEqualTo("1.0");
+        assertThat(environment.getProperty("user.tracing.tail-sampling.enabled")).isEqualTo("true");
+    }
+
+    @Test
+    void postProcess_WhenSetExplicitly_ShouldKeepIt() {
+        // Given
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("management.tracing.sampling.probability", "0.5");
+
+        // When
+        postProcessor.postProcessEnvironment(environment, null);
+
+        // Then
+        assertThat(environment.getProperty("management.tracing.sampling.probability")).isEqualTo("0.5");
+    }
+}